@@ -0,0 +1,65 @@
+package com.truckpacker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @brief JMH measurement of checkpointing overhead against the plain DP solver.
+ * @details mvn -Pbenchmark test-compile exec:exec -Djmh.args="CheckpointBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckpointBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int everyLayers;
+
+    private List<GoodsItem> items;
+    private List<Store> stores;
+    private Path directory;
+    private KnapsackSolver plainSolver;
+    private CheckpointingKnapsackSolver checkpointingSolver;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        items = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            String name = "item" + i;
+            names.add(name);
+            items.add(new GoodsItem(name, 1 + random.nextInt(100), 1 + random.nextInt(1000), 1 + random.nextInt(4)));
+        }
+        stores = List.of(new Store("Store1", names));
+        directory = Files.createTempDirectory("checkpoint-bench");
+        plainSolver = new KnapsackSolver();
+        checkpointingSolver = new CheckpointingKnapsackSolver(directory, everyLayers, Long.MAX_VALUE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(checkpointingSolver.checkpointFile(items, 5_000, 32, stores));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Object plain() {
+        return plainSolver.solveKnapsack(items, 5_000, 32, stores);
+    }
+
+    @Benchmark
+    public Object checkpointing() {
+        return checkpointingSolver.solveKnapsack(items, 5_000, 32, stores);
+    }
+}
@@ -0,0 +1,119 @@
+package com.truckpacker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @brief JMH comparison of DP table layouts for the fill step.
+ * @details mvn -Pbenchmark test-compile exec:exec -Djmh.args="DpLayoutBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DpLayoutBenchmark {
+
+    /** maxVolume:maxItems; layers range from L2-resident (2000:8) to well past L3 (1000000:4). */
+    @Param({"2000:8", "50000:8", "2000:256", "20000:64", "300000:16", "1000000:4"})
+    public String shape;
+
+    private int maxVolume;
+    private int maxItems;
+    private List<GoodsItem> items;
+
+    @Setup
+    public void setUp() {
+        String[] parts = shape.split(":");
+        maxVolume = Integer.parseInt(parts[0]);
+        maxItems = Integer.parseInt(parts[1]);
+        Random random = new Random(42);
+        items = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            items.add(new GoodsItem("item" + i, 1 + random.nextInt(50), 1 + random.nextInt(1000), 1 + random.nextInt(5)));
+        }
+    }
+
+    @Benchmark
+    public int nested() {
+        int[][][] dp = new int[items.size() + 1][maxVolume + 1][maxItems + 1];
+        for (int itemIndex = 1; itemIndex <= items.size(); itemIndex++) {
+            GoodsItem item = items.get(itemIndex - 1);
+            for (int v = 0; v <= maxVolume; v++) {
+                for (int k = 0; k <= maxItems; k++) {
+                    dp[itemIndex][v][k] = dp[itemIndex - 1][v][k];
+                    for (int count = 1; count <= item.getMaxCount(); count++) {
+                        if (item.getVolume() * count <= v && count <= k) {
+                            int newValue = dp[itemIndex - 1][v - item.getVolume() * count][k - count] + item.getValue() * count;
+                            if (newValue > dp[itemIndex][v][k]) {
+                                dp[itemIndex][v][k] = newValue;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return dp[items.size()][maxVolume][maxItems];
+    }
+
+    /**
+     * Layout used before this comparison: volume-major, one short row per volume.
+     */
+    @Benchmark
+    public int flatVolumeMajor() {
+        int rowLength = maxItems + 1;
+        int[][] dp = new int[items.size() + 1][(maxVolume + 1) * rowLength];
+        ScalarRowKernel kernel = new ScalarRowKernel();
+        for (int itemIndex = 1; itemIndex <= items.size(); itemIndex++) {
+            GoodsItem item = items.get(itemIndex - 1);
+            int[] previous = dp[itemIndex - 1];
+            int[] current = dp[itemIndex];
+            System.arraycopy(previous, 0, current, 0, current.length);
+            for (int v = 0; v <= maxVolume; v++) {
+                for (int count = 1; count <= item.getMaxCount() && count <= maxItems && item.getVolume() * count <= v; count++) {
+                    kernel.maxShifted(previous, (v - item.getVolume() * count) * rowLength, current, v * rowLength + count,
+                                      rowLength - count, item.getValue() * count);
+                }
+            }
+        }
+        return dp[items.size()][(maxVolume + 1) * rowLength - 1];
+    }
+
+    /**
+     * Count-major without tiling: each count streams the whole row.
+     */
+    @Benchmark
+    public int flatCountMajor() {
+        int rowLength = maxVolume + 1;
+        int[][] dp = new int[items.size() + 1][(maxItems + 1) * rowLength];
+        ScalarRowKernel kernel = new ScalarRowKernel();
+        for (int itemIndex = 1; itemIndex <= items.size(); itemIndex++) {
+            GoodsItem item = items.get(itemIndex - 1);
+            int[] previous = dp[itemIndex - 1];
+            int[] current = dp[itemIndex];
+            System.arraycopy(previous, 0, current, 0, current.length);
+            for (int k = 1; k <= maxItems; k++) {
+                for (int count = 1; count <= item.getMaxCount() && count <= k && item.getVolume() * count < rowLength; count++) {
+                    int shift = item.getVolume() * count;
+                    kernel.maxShifted(previous, (k - count) * rowLength, current, k * rowLength + shift,
+                                      rowLength - shift, item.getValue() * count);
+                }
+            }
+        }
+        return dp[items.size()][(maxItems + 1) * rowLength - 1];
+    }
+
+    /**
+     * Production layout: count-major, tiled by DpTransition.VOLUME_BLOCK.
+     */
+    @Benchmark
+    public int solver() {
+        int[][] dp = new KnapsackSolver().fillTable(items, maxVolume, maxItems);
+        return dp[items.size()][dp[0].length - 1];
+    }
+}
@@ -0,0 +1,61 @@
+package com.truckpacker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @brief JMH comparison of the scalar and Vector API DP row kernels on a full solve.
+ * @details Run with the vector kernel compiled in and enabled:
+ *          mvn -Pbenchmark,vector-api test-compile exec:exec -Djmh.args="RowKernelBenchmark -jvmArgsAppend --add-modules=jdk.incubator.vector"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowKernelBenchmark {
+
+    @Param({"1000", "10000"})
+    public int maxVolume;
+
+    @Param({"16", "256"})
+    public int maxItems;
+
+    private List<GoodsItem> items;
+    private List<Store> stores;
+    private KnapsackSolver scalarSolver;
+    private VectorKnapsackSolver vectorSolver;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        items = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String name = "item" + i;
+            names.add(name);
+            items.add(new GoodsItem(name, 1 + random.nextInt(maxVolume / 10), 1 + random.nextInt(1000), 1 + random.nextInt(4)));
+        }
+        stores = List.of(new Store("Store1", names));
+        scalarSolver = new KnapsackSolver();
+        vectorSolver = new VectorKnapsackSolver();
+        if (!vectorSolver.isVectorized()) {
+            System.err.println("Vector kernel unavailable, VectorKnapsackSolver is running scalar code");
+        }
+    }
+
+    @Benchmark
+    public Object scalar() {
+        return scalarSolver.solveKnapsack(items, maxVolume, maxItems, stores);
+    }
+
+    @Benchmark
+    public Object vector() {
+        return vectorSolver.solveKnapsack(items, maxVolume, maxItems, stores);
+    }
+}
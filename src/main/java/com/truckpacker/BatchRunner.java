@@ -0,0 +1,197 @@
+package com.truckpacker;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @brief Solves every instance triple in an input directory concurrently.
+ * @details Parsing and writing run on an I/O pool, solving runs on a bounded CPU pool. At most two
+ *          instances per CPU worker are in flight, so a large directory is never loaded into memory at once.
+ *          Each instance gets its own output file and one row in a summary CSV written as results arrive.
+ */
+public class BatchRunner {
+
+    /** Name of the summary CSV written to the output directory. */
+    public static final String SUMMARY_FILE = "summary.csv";
+
+    /**
+     * @brief What to do when an instance cannot be parsed or solved.
+     */
+    public enum FailurePolicy {
+        /** Stop the batch at the first failing instance. */
+        FAIL_FAST,
+        /** Record the failure in the summary and continue with the other instances. */
+        SKIP
+    }
+
+    private final KnapsackSolver solver;
+    private final int cpuWorkers;
+    private final int ioWorkers;
+    private final FailurePolicy failurePolicy;
+
+    /**
+     * @brief Constructor for the BatchRunner class.
+     * @param solver Solver used for every instance.
+     * @param cpuWorkers Number of threads solving instances.
+     * @param ioWorkers Number of threads reading and writing files.
+     * @param failurePolicy What to do with malformed or failing instances.
+     */
+    public BatchRunner(KnapsackSolver solver, int cpuWorkers, int ioWorkers, FailurePolicy failurePolicy) {
+        if (cpuWorkers < 1 || ioWorkers < 1) {
+            throw new IllegalArgumentException("Worker counts must be positive");
+        }
+        this.solver = solver;
+        this.cpuWorkers = cpuWorkers;
+        this.ioWorkers = ioWorkers;
+        this.failurePolicy = failurePolicy;
+    }
+
+    /**
+     * @brief Solves every instance in the input directory and writes the results.
+     * @param inputDirectory Directory containing the instance triples.
+     * @param outputDirectory Directory receiving one output file per instance and the summary CSV.
+     * @return Number of instances solved successfully.
+     * @throws IOException If the directories cannot be accessed, or an instance fails under FAIL_FAST.
+     * @throws InterruptedException If interrupted while waiting for a free worker.
+     */
+    public int run(Path inputDirectory, Path outputDirectory) throws IOException, InterruptedException {
+        Files.createDirectories(outputDirectory);
+        List<Path> goodsFiles = InstanceLoader.discover(inputDirectory);
+
+        ExecutorService ioPool = Executors.newFixedThreadPool(ioWorkers);
+        ExecutorService cpuPool = Executors.newFixedThreadPool(cpuWorkers);
+        Semaphore inFlight = new Semaphore(2 * cpuWorkers);
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+
+        try (BufferedWriter summary = Files.newBufferedWriter(outputDirectory.resolve(SUMMARY_FILE), StandardCharsets.UTF_8)) {
+            summary.write("instance,status,packedItems,totalValue,solveMillis,latencyMillis,error");
+            summary.newLine();
+
+            for (Path goodsFile : goodsFiles) {
+                inFlight.acquire();
+                if (firstFailure.isDone()) {
+                    inFlight.release();
+                    break;
+                }
+                String name = InstanceLoader.instanceName(goodsFile);
+                long start = System.nanoTime();
+                long[] solveNanos = new long[1];
+
+                CompletableFuture<Boolean> future = CompletableFuture
+                    .supplyAsync(() -> loadInstance(goodsFile), ioPool)
+                    .thenApplyAsync(instance -> {
+                        long solveStart = System.nanoTime();
+                        Map<List<GoodsItem>, Set<String>> result = solver.solveKnapsack(
+                            instance.getItems(), instance.getMaxVolume(), instance.getMaxItems(), instance.getStores());
+                        solveNanos[0] = System.nanoTime() - solveStart;
+                        return result;
+                    }, cpuPool)
+                    .thenApplyAsync(result -> {
+                        writeResult(outputDirectory.resolve(name + "_output.txt"), result);
+                        return result;
+                    }, ioPool)
+                    .handle((result, error) -> {
+                        long latency = System.nanoTime() - start;
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                            writeSummaryRow(summary, name, "FAILED", 0, 0, solveNanos[0], latency, cause.toString());
+                            if (failurePolicy == FailurePolicy.FAIL_FAST) {
+                                firstFailure.completeExceptionally(cause);
+                            }
+                            return false;
+                        }
+                        List<GoodsItem> packed = result.keySet().iterator().next();
+                        int totalValue = packed.stream().mapToInt(GoodsItem::getValue).sum();
+                        writeSummaryRow(summary, name, "OK", packed.size(), totalValue, solveNanos[0], latency, "");
+                        return true;
+                    })
+                    .whenComplete((ok, error) -> inFlight.release());
+                futures.add(future);
+            }
+
+            int solved = 0;
+            try {
+                for (CompletableFuture<Boolean> future : futures) {
+                    if (future.join()) {
+                        solved++;
+                    }
+                }
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();  // e.g. the summary could not be written
+                }
+                throw e;
+            }
+            if (firstFailure.isCompletedExceptionally()) {
+                try {
+                    firstFailure.join();
+                } catch (CompletionException e) {
+                    throw new IOException("Batch stopped at first failing instance", e.getCause());
+                }
+            }
+            return solved;
+        } finally {
+            ioPool.shutdownNow();
+            cpuPool.shutdownNow();
+        }
+    }
+
+    private static Instance loadInstance(Path goodsFile) {
+        try {
+            return InstanceLoader.load(goodsFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @brief Writes the packed items and stores to visit of one instance.
+     * @param file Output file.
+     * @param result Result returned by the solver.
+     */
+    static void writeResult(Path file, Map<List<GoodsItem>, Set<String>> result) {
+        List<GoodsItem> packedItems = result.keySet().iterator().next();
+        Set<String> storesToVisit = new TreeSet<>(result.values().iterator().next());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("Packed items:");
+            writer.newLine();
+            for (GoodsItem item : packedItems) {
+                writer.write("name = '" + item.getName() + "', volume = " + item.getVolume()
+                             + ", value = " + item.getValue() + ", maxCount = " + item.getMaxCount());
+                writer.newLine();
+            }
+            writer.newLine();
+            writer.write("Stores to visit:");
+            writer.newLine();
+            for (String store : storesToVisit) {
+                writer.write(store);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeSummaryRow(BufferedWriter summary, String name, String status, int packedItems,
+                                        int totalValue, long solveNanos, long latencyNanos, String error) {
+        String row = name + "," + status + "," + packedItems + "," + totalValue + ","
+                     + TimeUnit.NANOSECONDS.toMillis(solveNanos) + "," + TimeUnit.NANOSECONDS.toMillis(latencyNanos)
+                     + ",\"" + error.replace("\"", "\"\"") + "\"";
+        synchronized (summary) {
+            try {
+                summary.write(row);
+                summary.newLine();
+                summary.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.truckpacker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * @brief Knapsack solver that periodically saves completed DP layers so a restarted process can resume.
+ * @details Completed layers are appended sequentially to a checkpoint file every N layers or T milliseconds,
+ *          whichever comes first, and the file is fsynced once per checkpoint. Backtracking needs every layer,
+ *          so all layers are kept; each is written exactly once. Each problem has its own checkpoint file in the
+ *          checkpoint directory, named after the problem fingerprint, so one solver can be shared across threads.
+ *          Solving a problem whose checkpoint file matches resumes after the last complete layer and returns the
+ *          same result as an uninterrupted solve. A solve of a problem whose checkpoint is locked by another
+ *          solve runs without checkpointing. The checkpoint file is deleted, while still locked, once the table
+ *          is complete.
+ */
+public class CheckpointingKnapsackSolver extends KnapsackSolver {
+
+    /** Extension of the per-problem checkpoint files. */
+    public static final String CHECKPOINT_EXTENSION = ".ckpt";
+
+    private static final int FILE_MAGIC = 0x434B5032;  // "CKP2", count-major layers
+    private static final int RETIRED_MAGIC = 0x434B5044;  // "CKPD", written to a deleted checkpoint
+    private static final int KEY_BYTES = 32;
+    private static final int HEADER_BYTES = 4 + KEY_BYTES + 4 + 4;  // magic, key, layers, cells per layer
+    private static final int LAYER_OVERHEAD_BYTES = 4 + 4;  // layer index, checksum
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    /**
+     * @brief Packing found by a resumable solve and how much of it came from a checkpoint.
+     */
+    public static class Result {
+        private final Map<List<GoodsItem>, Set<String>> packing;
+        private final int resumedLayers;
+
+        /**
+         * @brief Constructor for the Result class.
+         * @param packing Packed items and the stores that need to be visited.
+         * @param resumedLayers Number of layers restored from a checkpoint, 0 if the solve started fresh.
+         */
+        public Result(Map<List<GoodsItem>, Set<String>> packing, int resumedLayers) {
+            this.packing = packing;
+            this.resumedLayers = resumedLayers;
+        }
+
+        /**
+         * @return Packed items and the stores that need to be visited, as returned by solveKnapsack.
+         */
+        public Map<List<GoodsItem>, Set<String>> getPacking() {
+            return packing;
+        }
+
+        /**
+         * @return Number of layers restored from a checkpoint, 0 if the solve started fresh.
+         */
+        public int getResumedLayers() {
+            return resumedLayers;
+        }
+    }
+
+    /**
+     * @brief A filled DP table and the number of its layers restored from a checkpoint.
+     */
+    private static class Table {
+        private final int[][] dp;
+        private final int resumedLayers;
+
+        private Table(int[][] dp, int resumedLayers) {
+            this.dp = dp;
+            this.resumedLayers = resumedLayers;
+        }
+    }
+
+    private final Path checkpointDirectory;
+    private final int everyLayers;
+    private final long everyMillis;
+
+    /**
+     * @brief Constructor for the CheckpointingKnapsackSolver class.
+     * @param checkpointDirectory Directory holding one checkpoint file per problem being solved.
+     * @param everyLayers Checkpoint at least every this many completed layers.
+     * @param everyMillis Checkpoint at least this often, in milliseconds.
+     */
+    public CheckpointingKnapsackSolver(Path checkpointDirectory, int everyLayers, long everyMillis) {
+        if (everyLayers < 1 || everyMillis < 0) {
+            throw new IllegalArgumentException("everyLayers must be >= 1 and everyMillis >= 0");
+        }
+        this.checkpointDirectory = checkpointDirectory;
+        this.everyLayers = everyLayers;
+        this.everyMillis = everyMillis;
+    }
+
+    @Override
+    public Map<List<GoodsItem>, Set<String>> solveKnapsack(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        return solveResumable(items, maxVolume, maxItems, stores).getPacking();
+    }
+
+    /**
+     * @brief Solves like solveKnapsack and reports how many layers were restored from a checkpoint.
+     * @param items List of goods items.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     * @param stores List of stores with their requested items.
+     * @return The packing and the number of resumed layers.
+     */
+    public Result solveResumable(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        List<GoodsItem> filteredItems = filterRequestedItems(items, stores);
+        Table table = fillCheckpointed(filteredItems, maxVolume, maxItems);
+        List<GoodsItem> selectedItems = DpBacktrack.packedItems(filteredItems, table.dp, maxVolume, maxVolume, maxItems);
+        return new Result(toResult(selectedItems, stores), table.resumedLayers);
+    }
+
+    /**
+     * @param items List of goods items.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     * @param stores List of stores with their requested items.
+     * @return Checkpoint file a solve of the problem writes to.
+     */
+    public Path checkpointFile(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        return checkpointFile(filterRequestedItems(items, stores), maxVolume, maxItems);
+    }
+
+    @Override
+    int[][] fillTable(List<GoodsItem> filteredItems, int maxVolume, int maxItems) {
+        return fillCheckpointed(filteredItems, maxVolume, maxItems).dp;
+    }
+
+    private Table fillCheckpointed(List<GoodsItem> filteredItems, int maxVolume, int maxItems) {
+        int numItems = filteredItems.size();
+        byte[] key = key(filteredItems, maxVolume, maxItems);
+        Path checkpointFile = checkpointDirectory.resolve(toHex(key) + CHECKPOINT_EXTENSION);
+        int[][] dp;
+        int completed;
+
+        try {
+            Files.createDirectories(checkpointDirectory);
+            while (true) {
+                try (FileChannel channel = FileChannel.open(checkpointFile,
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                     FileLock fileLock = tryLock(channel)) {
+                    if (fileLock == null) {
+                        // Another solve of the same problem owns the checkpoint
+                        return new Table(super.fillTable(filteredItems, maxVolume, maxItems), 0);
+                    }
+                    if (isRetired(channel)) {
+                        continue;  // Deleted by a solve that finished after we opened it; open the current file
+                    }
+                    dp = DpFill.allocate(numItems, maxVolume, maxItems);
+                    completed = restore(channel, key, dp);
+                    if (completed == 0) {
+                        writeHeader(channel, key, numItems, dp[0].length);
+                    }
+
+                    long position = channel.size();
+                    int checkpointed = completed;
+                    long lastCheckpoint = System.currentTimeMillis();
+                    for (int itemIndex = completed + 1; itemIndex <= numItems; itemIndex++) {
+                        fillLayer(dp[itemIndex - 1], dp[itemIndex], filteredItems.get(itemIndex - 1), maxVolume, maxItems);
+
+                        long now = System.currentTimeMillis();
+                        if (itemIndex - checkpointed >= everyLayers || now - lastCheckpoint >= everyMillis) {
+                            position = appendLayers(channel, position, dp, checkpointed + 1, itemIndex);
+                            checkpointed = itemIndex;
+                            lastCheckpoint = now;
+                        }
+                    }
+
+                    // The table is complete; remove the checkpoint while still holding its lock
+                    Files.deleteIfExists(checkpointFile);
+                    retire(channel);
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Table(dp, completed);
+    }
+
+    /**
+     * @brief Marks a deleted checkpoint so a solve that opened it before the deletion does not resume from it.
+     * @details Written after the file is unlinked, so a crash in between never leaves a marked file behind.
+     */
+    private static void retire(FileChannel channel) throws IOException {
+        channel.truncate(0);
+        ByteBuffer marker = ByteBuffer.allocate(Integer.BYTES).putInt(RETIRED_MAGIC).flip();
+        while (marker.hasRemaining()) {
+            channel.write(marker, marker.position());
+        }
+    }
+
+    private static boolean isRetired(FileChannel channel) throws IOException {
+        ByteBuffer marker = ByteBuffer.allocate(Integer.BYTES);
+        return readFully(channel, marker, 0) && marker.getInt(0) == RETIRED_MAGIC;
+    }
+
+    /**
+     * @return Lock on the checkpoint file, or null if another solve in this or another process holds it.
+     */
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private Path checkpointFile(List<GoodsItem> filteredItems, int maxVolume, int maxItems) {
+        return checkpointDirectory.resolve(toHex(key(filteredItems, maxVolume, maxItems)) + CHECKPOINT_EXTENSION);
+    }
+
+    private static byte[] key(List<GoodsItem> filteredItems, int maxVolume, int maxItems) {
+        return SolutionStore.fingerprint(CheckpointingKnapsackSolver.class.getName(), filteredItems, List.of(), maxVolume, maxItems);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @brief Loads the layers of a matching checkpoint and drops anything after the last complete layer.
+     * @return Number of layers restored, 0 if the file is empty or belongs to a different problem.
+     */
+    private int restore(FileChannel channel, byte[] key, int[][] dp) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (!readFully(channel, header, 0) || header.getInt(0) != FILE_MAGIC
+                || !Arrays.equals(Arrays.copyOfRange(header.array(), 4, 4 + KEY_BYTES), key)
+                || header.getInt(4 + KEY_BYTES) != dp.length - 1 || header.getInt(8 + KEY_BYTES) != dp[0].length) {
+            channel.truncate(0);
+            return 0;
+        }
+
+        int completed = 0;
+        long position = HEADER_BYTES;
+        ByteBuffer layer = ByteBuffer.allocate(LAYER_OVERHEAD_BYTES + dp[0].length * Integer.BYTES);
+        while (completed + 1 < dp.length) {
+            layer.clear();
+            if (!readFully(channel, layer, position) || layer.getInt(0) != completed + 1) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(layer.array(), 0, layer.capacity() - 4);
+            if ((int) crc.getValue() != layer.getInt(layer.capacity() - 4)) {
+                break;
+            }
+            layer.position(4);
+            layer.asIntBuffer().get(dp[completed + 1]);
+            completed++;
+            position += layer.capacity();
+        }
+        channel.truncate(position);  // Drop a layer torn by the crash so appends continue cleanly
+        return completed;
+    }
+
+    private static void writeHeader(FileChannel channel, byte[] key, int numItems, int cells) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(FILE_MAGIC).put(key).putInt(numItems).putInt(cells).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(false);
+    }
+
+    /**
+     * @brief Appends layers sequentially through a fixed buffer and fsyncs once at the end.
+     * @details Each layer is written as its index, its cells and a CRC32 of both.
+     * @return Position after the appended layers.
+     */
+    private static long appendLayers(FileChannel channel, long position, int[][] dp, int fromLayer, int toLayer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        CRC32 crc = new CRC32();
+        for (int layerIndex = fromLayer; layerIndex <= toLayer; layerIndex++) {
+            crc.reset();
+            if (buffer.remaining() < Integer.BYTES) {
+                position = flush(channel, buffer, position);
+            }
+            buffer.putInt(layerIndex);
+            crc.update(buffer.array(), buffer.position() - Integer.BYTES, Integer.BYTES);
+
+            int[] cells = dp[layerIndex];
+            for (int offset = 0; offset < cells.length; ) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    position = flush(channel, buffer, position);
+                }
+                int start = buffer.position();
+                int count = Math.min(cells.length - offset, buffer.remaining() / Integer.BYTES);
+                buffer.asIntBuffer().put(cells, offset, count);
+                buffer.position(start + count * Integer.BYTES);
+                crc.update(buffer.array(), start, count * Integer.BYTES);
+                offset += count;
+            }
+
+            if (buffer.remaining() < Integer.BYTES) {
+                position = flush(channel, buffer, position);
+            }
+            buffer.putInt((int) crc.getValue());
+        }
+        position = flush(channel, buffer, position);
+        channel.force(false);
+        return position;
+    }
+
+    /**
+     * @brief Writes the buffered bytes at a position.
+     * @return Position after the written bytes.
+     */
+    private static long flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return position;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package com.truckpacker;
+
+import java.util.*;
+
+/**
+ * @brief Backtrack kernel: reconstructs a packing from a filled DP table.
+ * @details Walks the layers from the last item to the first; while an item's layer improves on the previous one
+ *          at the remaining capacity, the first count whose transition reproduces the cell is taken.
+ */
+final class DpBacktrack {
+
+    private DpBacktrack() {
+    }
+
+    /**
+     * @brief Retrieves the packed items for a capacity by backtracking through a filled DP table.
+     * @param filteredItems Items the table was filled with, in layer order.
+     * @param dp Filled table as returned by DpFill.fill.
+     * @param tableMaxVolume maxVolume the table was filled with.
+     * @param volume Volume to reconstruct the packing for, at most tableMaxVolume.
+     * @param maxItems Number of items to reconstruct the packing for, at most the table's maxItems.
+     * @return Packed items, last layer first.
+     */
+    static List<GoodsItem> packedItems(List<GoodsItem> filteredItems, int[][] dp, int tableMaxVolume, int volume, int maxItems) {
+        List<GoodsItem> selectedItems = new ArrayList<>();
+        int remainingVolume = volume;  // Remaining volume in the knapsack
+        int remainingItems = maxItems;  // Remaining item slots in the knapsack
+
+        for (int itemIndex = filteredItems.size(); itemIndex > 0; itemIndex--) {
+            int prev_item_index = itemIndex - 1;
+            GoodsItem currentItem = filteredItems.get(prev_item_index);  // Get current item
+            int currentItemVolume = currentItem.getVolume();  // Volume of the current item
+            int currentItemValue = currentItem.getValue();  // Value of the current item
+            int[] current = dp[itemIndex];
+            int[] previous = dp[prev_item_index];
+
+            // Check if the item was selected by comparing the DP values of adjacent states
+            while (remainingVolume >= currentItemVolume && remainingItems > 0 &&
+                   current[DpFill.cell(remainingVolume, remainingItems, tableMaxVolume)] !=
+                   previous[DpFill.cell(remainingVolume, remainingItems, tableMaxVolume)]) {
+                boolean matched = false;
+                for (int count = 1; count <= currentItem.getMaxCount(); count++) {
+                    int totalItemVolume = currentItemVolume * count;
+                    int totalItemValue = currentItemValue * count;
+
+                    // Check if this count of the item fits and matches the DP transition
+                    if (remainingVolume >= totalItemVolume && remainingItems >= count &&
+                        current[DpFill.cell(remainingVolume, remainingItems, tableMaxVolume)] ==
+                        previous[DpFill.cell(remainingVolume - totalItemVolume, remainingItems - count, tableMaxVolume)] + totalItemValue) {
+                        // Add the selected items to the result list
+                        for (int c = 0; c < count; c++) {
+                            selectedItems.add(currentItem);
+                        }
+                        // Update the remaining volume and items
+                        remainingVolume -= totalItemVolume;
+                        remainingItems -= count;
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    break;  // Inconsistent table; stop instead of spinning on the same cell
+                }
+            }
+        }
+        return selectedItems;
+    }
+}
@@ -0,0 +1,58 @@
+package com.truckpacker;
+
+import java.util.List;
+
+/**
+ * @brief Fill kernel: allocates the DP table, defines its layout and fills it layer by layer.
+ * @details Each layer is one contiguous array indexed by items * (maxVolume + 1) + volume. Layer 0 is the empty
+ *          packing; layer i adds the i-th item.
+ */
+final class DpFill {
+
+    /**
+     * @brief Fills one layer from the previous one.
+     */
+    @FunctionalInterface
+    interface LayerStep {
+        void fill(int[] previous, int[] current, GoodsItem item);
+    }
+
+    private DpFill() {
+    }
+
+    /**
+     * @param numItems Number of items, one layer each.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     * @return Zeroed table with the empty layer 0 and one layer per item.
+     */
+    static int[][] allocate(int numItems, int maxVolume, int maxItems) {
+        return new int[numItems + 1][(maxItems + 1) * (maxVolume + 1)];
+    }
+
+    /**
+     * @param volume Volume of the cell.
+     * @param items Number of items of the cell.
+     * @param maxVolume maxVolume the table was allocated with.
+     * @return Index of the cell within a layer.
+     */
+    static int cell(int volume, int items, int maxVolume) {
+        return items * (maxVolume + 1) + volume;
+    }
+
+    /**
+     * @brief Allocates the table and fills every layer in item order.
+     * @param filteredItems Items to consider, in layer order.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     * @param step Transition filling a layer from the previous one.
+     * @return Filled table; cell (volume, items) holds the best value using at most that many items and that volume.
+     */
+    static int[][] fill(List<GoodsItem> filteredItems, int maxVolume, int maxItems, LayerStep step) {
+        int[][] dp = allocate(filteredItems.size(), maxVolume, maxItems);
+        for (int itemIndex = 1; itemIndex <= filteredItems.size(); itemIndex++) {
+            step.fill(dp[itemIndex - 1], dp[itemIndex], filteredItems.get(itemIndex - 1));
+        }
+        return dp;
+    }
+}
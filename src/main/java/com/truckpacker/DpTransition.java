@@ -0,0 +1,51 @@
+package com.truckpacker;
+
+/**
+ * @brief Transition kernel: fills one DP layer from the previous one for a single item.
+ * @details Rows are processed in volume tiles so the current tile stays cached while every count of the item is
+ *          applied to it; each count is a shifted elementwise max handed to the row kernel.
+ */
+final class DpTransition {
+
+    /** Volume cells per tile; a tile of the current row plus the previous-row tiles it reads stay in L2. */
+    static final int VOLUME_BLOCK = 4096;
+
+    private DpTransition() {
+    }
+
+    /**
+     * @brief Fills one DP layer from the previous one.
+     * @param rowKernel Kernel applying the shifted row max.
+     * @param previous Layer without the current item.
+     * @param current Layer to fill, considering the current item in every allowed count.
+     * @param currentItem Item added by this layer.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     */
+    static void apply(RowKernel rowKernel, int[] previous, int[] current, GoodsItem currentItem, int maxVolume, int maxItems) {
+        int rowLength = maxVolume + 1;  // Cells per item-count row
+        int currentItemVolume = currentItem.getVolume();  // Volume of the current item
+        int currentItemValue = currentItem.getValue();  // Value of the current item
+
+        // Case 1: Do not take the current item
+        System.arraycopy(previous, 0, current, 0, current.length);
+
+        // Case 2: Try taking the current item in various counts (if allowed by volume and item limit)
+        for (int itemsLeft = 1; itemsLeft <= maxItems; itemsLeft++) {
+            for (int blockStart = 0; blockStart < rowLength; blockStart += VOLUME_BLOCK) {
+                int blockEnd = Math.min(blockStart + VOLUME_BLOCK, rowLength);
+                for (int count = 1; count <= currentItem.getMaxCount() && count <= itemsLeft; count++) {
+                    long totalItemVolume = (long) currentItemVolume * count;
+                    if (totalItemVolume >= blockEnd) {
+                        break;  // Larger counts do not fit anywhere in this tile either
+                    }
+                    int fromVolume = (int) Math.max(blockStart, totalItemVolume);
+                    // current[itemsLeft][volumeLeft] = max(current, previous[itemsLeft - count][volumeLeft - totalItemVolume] + totalItemValue)
+                    rowKernel.maxShifted(previous, (itemsLeft - count) * rowLength + fromVolume - (int) totalItemVolume,
+                                         current, itemsLeft * rowLength + fromVolume,
+                                         blockEnd - fromVolume, currentItemValue * count);
+                }
+            }
+        }
+    }
+}
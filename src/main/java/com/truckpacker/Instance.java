@@ -0,0 +1,65 @@
+package com.truckpacker;
+
+import java.util.List;
+
+/**
+ * @brief One knapsack problem instance read from a goods/stores/maxvolume file triple.
+ */
+public class Instance {
+    private final String name;
+    private final int maxItems;
+    private final int maxVolume;
+    private final List<GoodsItem> items;
+    private final List<Store> stores;
+
+    /**
+     * @brief Constructor for the Instance class.
+     * @param name Name of the instance, e.g. test1_json.
+     * @param maxItems Maximum number of items that can be packed.
+     * @param maxVolume Maximum volume of the knapsack.
+     * @param items List of available goods items.
+     * @param stores List of stores requesting items.
+     */
+    public Instance(String name, int maxItems, int maxVolume, List<GoodsItem> items, List<Store> stores) {
+        this.name = name;
+        this.maxItems = maxItems;
+        this.maxVolume = maxVolume;
+        this.items = items;
+        this.stores = stores;
+    }
+
+    /**
+     * @return Name of the instance.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Maximum number of items that can be packed.
+     */
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * @return Maximum volume of the knapsack.
+     */
+    public int getMaxVolume() {
+        return maxVolume;
+    }
+
+    /**
+     * @return List of available goods items.
+     */
+    public List<GoodsItem> getItems() {
+        return items;
+    }
+
+    /**
+     * @return List of stores requesting items.
+     */
+    public List<Store> getStores() {
+        return stores;
+    }
+}
@@ -0,0 +1,153 @@
+package com.truckpacker;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * @brief Discovers and parses testN_goods/testN_stores/testN_maxvolume instance triples.
+ * @details JSON files are read with Gson and YAML files with SnakeYAML. Goods without a maxCount
+ *          default to the instance's maxItems.
+ */
+public class InstanceLoader {
+
+    private static final Pattern GOODS_FILE = Pattern.compile("(.+)_goods\\.(json|yaml)");
+
+    /**
+     * @brief Finds every complete instance triple in a directory.
+     * @param directory Directory containing the input files.
+     * @return Goods file of each instance whose stores and maxvolume files also exist, sorted by name.
+     * @throws IOException If the directory cannot be listed.
+     */
+    public static List<Path> discover(Path directory) throws IOException {
+        List<Path> goodsFiles = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.sorted().forEach(file -> {
+                Matcher matcher = GOODS_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()
+                        && Files.isRegularFile(sibling(file, matcher, "stores"))
+                        && Files.isRegularFile(sibling(file, matcher, "maxvolume"))) {
+                    goodsFiles.add(file);
+                }
+            });
+        }
+        return goodsFiles;
+    }
+
+    /**
+     * @brief Derives the instance name from its goods file, e.g. test1_goods.json becomes test1_json.
+     * @param goodsFile Goods file of the instance.
+     * @return Name of the instance.
+     */
+    public static String instanceName(Path goodsFile) {
+        Matcher matcher = matchGoodsFile(goodsFile);
+        return matcher.group(1) + "_" + matcher.group(2);
+    }
+
+    /**
+     * @brief Reads and validates the instance triple belonging to a goods file.
+     * @param goodsFile Goods file of the instance.
+     * @return The parsed instance.
+     * @throws IOException If a file cannot be read.
+     * @throws IllegalArgumentException If a file is malformed.
+     */
+    public static Instance load(Path goodsFile) throws IOException {
+        Matcher matcher = matchGoodsFile(goodsFile);
+        Map<?, ?> goods = asMap(parse(goodsFile), goodsFile);
+        Object stores = parse(sibling(goodsFile, matcher, "stores"));
+        Map<?, ?> maxVolume = asMap(parse(sibling(goodsFile, matcher, "maxvolume")), goodsFile);
+
+        int maxItems = intField(goods, "maxItems", goodsFile);
+        List<GoodsItem> items = new ArrayList<>();
+        for (Object entry : asList(goods.get("goods"), goodsFile)) {
+            Map<?, ?> item = asMap(entry, goodsFile);
+            int maxCount = item.containsKey("maxCount") ? intField(item, "maxCount", goodsFile) : maxItems;
+            items.add(new GoodsItem(stringField(item, "name", goodsFile), intField(item, "volume", goodsFile),
+                                    intField(item, "value", goodsFile), maxCount));
+        }
+
+        Path storesFile = sibling(goodsFile, matcher, "stores");
+        if (stores instanceof Map && ((Map<?, ?>) stores).containsKey("stores")) {
+            stores = ((Map<?, ?>) stores).get("stores");  // Accept {"stores": [...]} as well as a bare list
+        }
+        List<Store> storeList = new ArrayList<>();
+        for (Object entry : asList(stores, storesFile)) {
+            Map<?, ?> store = asMap(entry, storesFile);
+            List<String> requestedItems = new ArrayList<>();
+            for (Object requested : asList(store.get("requestedItems"), storesFile)) {
+                requestedItems.add(String.valueOf(requested));
+            }
+            storeList.add(new Store(stringField(store, "name", storesFile), requestedItems));
+        }
+
+        int volume = intField(maxVolume, "maxVolume", sibling(goodsFile, matcher, "maxvolume"));
+        if (maxItems < 0 || volume < 0) {
+            throw new IllegalArgumentException(goodsFile + ": maxItems and maxVolume must not be negative");
+        }
+        return new Instance(instanceName(goodsFile), maxItems, volume, items, storeList);
+    }
+
+    private static Matcher matchGoodsFile(Path goodsFile) {
+        Matcher matcher = GOODS_FILE.matcher(goodsFile.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(goodsFile + " is not a goods file");
+        }
+        return matcher;
+    }
+
+    private static Path sibling(Path goodsFile, Matcher matcher, String kind) {
+        return goodsFile.resolveSibling(matcher.group(1) + "_" + kind + "." + matcher.group(2));
+    }
+
+    private static Object parse(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (file.getFileName().toString().endsWith(".json")) {
+                return new Gson().fromJson(reader, Object.class);
+            }
+            return new Yaml().load(reader);
+        } catch (JsonParseException | YAMLException e) {
+            throw new IllegalArgumentException(file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<?, ?> asMap(Object value, Path file) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException(file + ": expected an object but found " + value);
+        }
+        return (Map<?, ?>) value;
+    }
+
+    private static List<?> asList(Object value, Path file) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException(file + ": expected a list but found " + value);
+        }
+        return (List<?>) value;
+    }
+
+    private static int intField(Map<?, ?> map, String key, Path file) {
+        Object value = map.get(key);
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException(file + ": missing or non-numeric " + key);
+        }
+        return ((Number) value).intValue();
+    }
+
+    private static String stringField(Map<?, ?> map, String key, Path file) {
+        Object value = map.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException(file + ": missing " + key);
+        }
+        return String.valueOf(value);
+    }
+}
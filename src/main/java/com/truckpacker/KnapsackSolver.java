@@ -4,9 +4,31 @@ import java.util.*;
 
 /**
  * @brief Knapsack solver class for the truckpacker knapsack problem.
+ * @details Each DP layer is stored as one contiguous array indexed by items * (maxVolume + 1) + volume,
+ *          so the per-count transition is a shifted elementwise max of two contiguous rows. Count-major order
+ *          keeps the rows long even when maxItems is small. The solve is split into kernels that are tested on
+ *          their own: DpFill (table layout and layer loop), DpTransition (one layer), DpBacktrack (packing
+ *          reconstruction) and StoreAttribution (requested items and stores to visit).
  */
 public class KnapsackSolver {
 
+    private final RowKernel kernel;
+
+    /**
+     * @brief Constructor for the KnapsackSolver class using the scalar row kernel.
+     */
+    public KnapsackSolver() {
+        this(new ScalarRowKernel());
+    }
+
+    /**
+     * @brief Constructor for solvers that supply their own row kernel.
+     * @param kernel Kernel applying the shifted row max of the DP transition.
+     */
+    KnapsackSolver(RowKernel kernel) {
+        this.kernel = kernel;
+    }
+
     /**
      * @brief Solves the knapsack problem using dynamic programming, considering store requests.
      * @param items List of goods items.
@@ -17,106 +39,87 @@ public class KnapsackSolver {
      */
     public Map<List<GoodsItem>, Set<String>> solveKnapsack(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
         // Step 1: Filter items to include only those requested by stores
-        Set<String> requestedItemNames = new HashSet<>();
-        for (Store store : stores) {
-            requestedItemNames.addAll(store.getRequestedItems());  // Collect all requested item names
-        }
-
-        // Create a list of filtered items based on store requests
-        List<GoodsItem> filteredItems = new ArrayList<>();
-        for (GoodsItem item : items) {
-            if (requestedItemNames.contains(item.getName())) {
-                filteredItems.add(item);
-            }
-        }
-
-        
-
-        // Step 2: Initialize dynamic programming (DP) table
-        int numItems = filteredItems.size();  // Total number of filtered items
-        int[][][] dp = new int[numItems + 1][maxVolume + 1][maxItems + 1];
-
-        // Fill the DP table
-        for (int itemIndex = 1; itemIndex <= numItems; itemIndex++) {
-            GoodsItem currentItem = filteredItems.get(itemIndex - 1);  // Get current item
-            int currentItemVolume = currentItem.getVolume();  // Volume of the current item
-            int currentItemValue = currentItem.getValue();  // Value of the current item
+        List<GoodsItem> filteredItems = filterRequestedItems(items, stores);
 
-            // Loop through each possible volume and number of items
-            for (int volumeLeft = 0; volumeLeft <= maxVolume; volumeLeft++) {
-                for (int itemsLeft = 0; itemsLeft <= maxItems; itemsLeft++) {
-                    // Case 1: Do not take the current item
-                    int prev_item_index = itemIndex - 1;
-                    dp[itemIndex][volumeLeft][itemsLeft] = dp[prev_item_index][volumeLeft][itemsLeft];
-
-                    // Case 2: Try taking the current item in various counts (if allowed by volume and item limit)
-                    for (int count = 1; count <= currentItem.getMaxCount(); count++) {
-                        int totalItemVolume = currentItemVolume * count;
-                        int totalItemValue = currentItemValue * count;
-
-                        // Check if the current count of items can fit within the remaining volume and item limits
-                        if (totalItemVolume <= volumeLeft && count <= itemsLeft) {
-                            int previousValue = dp[prev_item_index][volumeLeft - totalItemVolume][itemsLeft - count];
-                            int newValue = previousValue + totalItemValue;
-
-                            // Update the DP table if taking the items leads to a higher value
-                            if (newValue > dp[itemIndex][volumeLeft][itemsLeft]) {
-                                dp[itemIndex][volumeLeft][itemsLeft] = newValue;
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        // Step 2: Fill the dynamic programming (DP) table, one flattened layer per item
+        int[][] dp = fillTable(filteredItems, maxVolume, maxItems);
 
         // Step 3: Retrieve the selected items by backtracking through the DP table
-        List<GoodsItem> selectedItems = new ArrayList<>();
-        int remainingVolume = maxVolume;  // Remaining volume in the knapsack
-        int remainingItems = maxItems;  // Remaining item slots in the knapsack
+        List<GoodsItem> selectedItems = DpBacktrack.packedItems(filteredItems, dp, maxVolume, maxVolume, maxItems);
 
-        for (int itemIndex = numItems; itemIndex > 0; itemIndex--) {
-            int prev_item_index = itemIndex - 1;
-            GoodsItem currentItem = filteredItems.get(prev_item_index);  // Get current item
-            int currentItemVolume = currentItem.getVolume();  // Volume of the current item
-            int currentItemValue = currentItem.getValue();  // Value of the current item
+        // Step 4: Determine which stores must be visited and return them with the packed items
+        return toResult(selectedItems, stores);
+    }
 
-            // Check if the item was selected by comparing the DP values of adjacent states
-            while (remainingVolume >= currentItemVolume && remainingItems > 0 &&
-                   dp[itemIndex][remainingVolume][remainingItems] != dp[prev_item_index][remainingVolume][remainingItems]) {
-                for (int count = 1; count <= currentItem.getMaxCount(); count++) {
-                    int totalItemVolume = currentItemVolume * count;
-                    int totalItemValue = currentItemValue * count;
+    /**
+     * @brief Computes the optimal packed value without reconstructing the packing.
+     * @param items List of goods items.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     * @param stores List of stores with their requested items.
+     * @return Highest total value reachable within the volume and item limits.
+     */
+    public int optimalValue(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        return table(items, maxVolume, maxItems, stores).value(maxVolume, maxItems);
+    }
 
-                    // Check if this count of the item fits and matches the DP transition
-                    if (remainingVolume >= totalItemVolume && remainingItems >= count &&
-                        dp[itemIndex][remainingVolume][remainingItems] ==
-                        dp[prev_item_index][remainingVolume - totalItemVolume][remainingItems - count] + totalItemValue) {
-                        // Add the selected items to the result list
-                        for (int c = 0; c < count; c++) {
-                            selectedItems.add(currentItem);
-                        }
-                        // Update the remaining volume and items
-                        remainingVolume -= totalItemVolume;
-                        remainingItems -= count;
-                        break;
-                    }
-                }
-            }
-        }
+    /**
+     * @brief Fills the DP table once for value queries at any capacity up to the given limits.
+     * @param items List of goods items.
+     * @param maxVolume Largest volume that will be queried.
+     * @param maxItems Largest number of items that will be queried.
+     * @param stores List of stores with their requested items.
+     * @return Filled table; packings are only reconstructed when asked for.
+     */
+    public KnapsackTable table(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        List<GoodsItem> filteredItems = filterRequestedItems(items, stores);
+        return new KnapsackTable(filteredItems, stores, fillTable(filteredItems, maxVolume, maxItems), maxVolume, maxItems);
+    }
 
-        // Step 4: Determine which stores must be visited based on the selected items
-        Set<String> storesToVisit = new HashSet<>();
-        for (GoodsItem item : selectedItems) {
-            for (Store store : stores) {
-                if (store.getRequestedItems().contains(item.getName())) {
-                    storesToVisit.add(store.getName());  // Add store if it requested the selected item
-                }
-            }
-        }
+    /**
+     * @brief Keeps only the items requested by at least one store, in their original order.
+     * @param items List of goods items.
+     * @param stores List of stores with their requested items.
+     * @return List of requested items.
+     */
+    static List<GoodsItem> filterRequestedItems(List<GoodsItem> items, List<Store> stores) {
+        return StoreAttribution.requestedItems(items, stores);
+    }
 
-        // Step 5: Return the result as a map containing the packed items and the stores to visit
+    /**
+     * @brief Determines which stores must be visited for a packing and wraps both in the solver's result map.
+     * @param selectedItems Packed goods items.
+     * @param stores List of stores with their requested items.
+     * @return Map containing the packed items and the stores that need to be visited.
+     */
+    static Map<List<GoodsItem>, Set<String>> toResult(List<GoodsItem> selectedItems, List<Store> stores) {
         Map<List<GoodsItem>, Set<String>> result = new HashMap<>();
-        result.put(selectedItems, storesToVisit);
+        result.put(selectedItems, StoreAttribution.storesToVisit(selectedItems, stores));
         return result;
     }
+
+    /**
+     * @brief Fills the DP table for the given items.
+     * @param filteredItems Items to consider, in layer order.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     * @return One flattened layer per item plus the empty layer 0; cell items * (maxVolume + 1) + volume
+     *         holds the best value using at most that many items and that volume.
+     */
+    int[][] fillTable(List<GoodsItem> filteredItems, int maxVolume, int maxItems) {
+        return DpFill.fill(filteredItems, maxVolume, maxItems,
+                           (previous, current, item) -> fillLayer(previous, current, item, maxVolume, maxItems));
+    }
+
+    /**
+     * @brief Fills one DP layer from the previous one.
+     * @param previous Layer without the current item.
+     * @param current Layer to fill, considering the current item in every allowed count.
+     * @param currentItem Item added by this layer.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     */
+    void fillLayer(int[] previous, int[] current, GoodsItem currentItem, int maxVolume, int maxItems) {
+        DpTransition.apply(kernel, previous, current, currentItem, maxVolume, maxItems);
+    }
 }
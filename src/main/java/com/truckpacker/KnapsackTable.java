@@ -0,0 +1,88 @@
+package com.truckpacker;
+
+import java.util.*;
+
+/**
+ * @brief Filled DP table answering value queries for any capacity up to the limits it was filled with.
+ * @details Values are read in O(1) from the last layer, which holds the best value for every (volume, items)
+ *          pair at or below the limits. Packings are only reconstructed by backtracking when requested, so a
+ *          capacity-sensitivity sweep costs one DP fill.
+ */
+public class KnapsackTable {
+    private final List<GoodsItem> filteredItems;
+    private final List<Store> stores;
+    private final int[][] dp;
+    private final int maxVolume;
+    private final int maxItems;
+    private Map<List<GoodsItem>, Set<String>> fullPacking;
+
+    /**
+     * @brief Constructor for the KnapsackTable class.
+     * @param filteredItems Items the table was filled with, in layer order.
+     * @param stores List of stores with their requested items.
+     * @param dp Filled table as returned by DpFill.fill.
+     * @param maxVolume maxVolume the table was filled with.
+     * @param maxItems maxItems the table was filled with.
+     */
+    KnapsackTable(List<GoodsItem> filteredItems, List<Store> stores, int[][] dp, int maxVolume, int maxItems) {
+        this.filteredItems = filteredItems;
+        this.stores = stores;
+        this.dp = dp;
+        this.maxVolume = maxVolume;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * @return maxVolume the table was filled with.
+     */
+    public int getMaxVolume() {
+        return maxVolume;
+    }
+
+    /**
+     * @return maxItems the table was filled with.
+     */
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * @brief Looks up the best value for a smaller or equal capacity.
+     * @param volume Volume limit, at most maxVolume.
+     * @param items Item limit, at most maxItems.
+     * @return Highest total value reachable within the volume and item limits.
+     */
+    public int value(int volume, int items) {
+        checkCapacity(volume, items);
+        return dp[dp.length - 1][DpFill.cell(volume, items, maxVolume)];
+    }
+
+    /**
+     * @brief Reconstructs the packing for the full capacity; the result is computed once and reused.
+     * @return Map containing the list of goods items that can be packed and the stores that need to be visited.
+     */
+    public Map<List<GoodsItem>, Set<String>> packing() {
+        if (fullPacking == null) {
+            fullPacking = packing(maxVolume, maxItems);
+        }
+        return fullPacking;
+    }
+
+    /**
+     * @brief Reconstructs the packing for a smaller or equal capacity.
+     * @param volume Volume limit, at most maxVolume.
+     * @param items Item limit, at most maxItems.
+     * @return Map containing the list of goods items that can be packed and the stores that need to be visited.
+     */
+    public Map<List<GoodsItem>, Set<String>> packing(int volume, int items) {
+        checkCapacity(volume, items);
+        return KnapsackSolver.toResult(DpBacktrack.packedItems(filteredItems, dp, maxVolume, volume, items), stores);
+    }
+
+    private void checkCapacity(int volume, int items) {
+        if (volume < 0 || volume > maxVolume || items < 0 || items > maxItems) {
+            throw new IllegalArgumentException("Capacity (" + volume + ", " + items + ") is outside the table's ("
+                                               + maxVolume + ", " + maxItems + ")");
+        }
+    }
+}
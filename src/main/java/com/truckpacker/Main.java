@@ -1,5 +1,8 @@
 package com.truckpacker;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -7,10 +10,23 @@ import java.util.Set;
 /**
  * @brief Main class for the truckpacker knapsack problem.
  * @details The class is now refactored to accept inputs directly without reading files.
+ *          Batch mode solves every instance triple in a directory:
+ *          --batch inputDir outputDir [--workers N] [--io-workers N] [--fail-fast] [--solution-store dir]
  */
 public class Main {
-    
+
+    /** Size cap of the data file of a batch solution store. */
+    static final long SOLUTION_STORE_MAX_BYTES = 1L << 30;
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            int status = runBatch(args);
+            if (status != 0) {
+                System.exit(status);
+            }
+            return;
+        }
+
         int maxItems = 5;
         int maxVolume = 50;
         List<GoodsItem> items = List.of(
@@ -26,6 +42,98 @@ public class Main {
         executeKnapsack(maxItems, maxVolume, items, stores);
     }
 
+    /** Command line of batch mode. */
+    static final String BATCH_USAGE = "Usage: --batch inputDir outputDir [--workers N] [--io-workers N] [--fail-fast] [--solution-store dir]";
+
+    /**
+     * @brief Runs batch mode with the given command line arguments.
+     * @param args Command line arguments starting with --batch.
+     * @return Process exit status: 0 on success, 1 if the batch could not be completed, 2 on a usage error.
+     */
+    static int runBatch(String[] args) {
+        if (args.length < 3) {
+            return usageError("Expected an input and an output directory");
+        }
+        Path inputDirectory = Paths.get(args[1]);
+        Path outputDirectory = Paths.get(args[2]);
+        int cpuWorkers = Runtime.getRuntime().availableProcessors();
+        int ioWorkers = 4;
+        BatchRunner.FailurePolicy failurePolicy = BatchRunner.FailurePolicy.SKIP;
+        Path storeDirectory = null;
+
+        for (int i = 3; i < args.length; i++) {
+            String option = args[i];
+            if (!option.equals("--fail-fast") && i + 1 == args.length) {
+                return usageError("Missing value for " + option);
+            }
+            switch (option) {
+                case "--workers":
+                    cpuWorkers = parsePositive(args[++i]);
+                    if (cpuWorkers < 1) {
+                        return usageError("--workers must be a positive integer");
+                    }
+                    break;
+                case "--io-workers":
+                    ioWorkers = parsePositive(args[++i]);
+                    if (ioWorkers < 1) {
+                        return usageError("--io-workers must be a positive integer");
+                    }
+                    break;
+                case "--fail-fast":
+                    failurePolicy = BatchRunner.FailurePolicy.FAIL_FAST;
+                    break;
+                case "--solution-store":
+                    storeDirectory = Paths.get(args[++i]);
+                    break;
+                default:
+                    return usageError("Unknown option: " + option);
+            }
+        }
+
+        try {
+            if (storeDirectory == null) {
+                BatchRunner runner = new BatchRunner(new KnapsackSolver(), cpuWorkers, ioWorkers, failurePolicy);
+                printBatchSummary(runner.run(inputDirectory, outputDirectory), outputDirectory);
+                return 0;
+            }
+            // Reuse packings from earlier runs; new ones are stored for the next run
+            try (SolutionStore store = new SolutionStore(storeDirectory, SOLUTION_STORE_MAX_BYTES)) {
+                KnapsackSolver solver = new PersistentKnapsackSolver(new KnapsackSolver(), store);
+                BatchRunner runner = new BatchRunner(solver, cpuWorkers, ioWorkers, failurePolicy);
+                printBatchSummary(runner.run(inputDirectory, outputDirectory), outputDirectory);
+                return 0;
+            }
+        } catch (IOException e) {
+            System.err.println("Batch failed: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Batch interrupted");
+            return 1;
+        }
+    }
+
+    /**
+     * @return The value as a positive integer, or 0 if it is not one.
+     */
+    private static int parsePositive(String value) {
+        try {
+            return Math.max(0, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int usageError(String message) {
+        System.err.println(message);
+        System.err.println(BATCH_USAGE);
+        return 2;
+    }
+
+    private static void printBatchSummary(int solved, Path outputDirectory) {
+        System.out.println("Solved " + solved + " instances, summary in " + outputDirectory.resolve(BatchRunner.SUMMARY_FILE));
+    }
+
     /**
      * @brief Executes the knapsack algorithm and prints the results.
      * @param maxItems Maximum number of items that can be packed.
@@ -0,0 +1,308 @@
+package com.truckpacker;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * @brief Exact meet-in-the-middle solver for few distinct items with small maxCounts and huge volumes.
+ * @details The requested items are split into two halves and every (volume, count, value) combination of
+ *          each half is enumerated in parallel into primitive arrays. Within each count, combinations are
+ *          pruned to a Pareto staircase (volume ascending, value strictly ascending), and the halves are joined
+ *          per pair of counts with a two-pointer sweep. Run time depends on the number of combinations rather
+ *          than on maxVolume; when a half exceeds the state limit the solve is handed to a fallback engine.
+ */
+public class MeetInTheMiddleSolver extends KnapsackSolver {
+
+    /** Default limit on enumerated combinations per half. */
+    public static final int DEFAULT_MAX_STATES_PER_HALF = 1 << 22;
+
+    /** Combinations enumerated per parallel task. */
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private final KnapsackSolver fallback;
+    private final int maxStatesPerHalf;
+
+    /**
+     * @brief Constructor for the MeetInTheMiddleSolver class falling back to the DP solver.
+     */
+    public MeetInTheMiddleSolver() {
+        this(new KnapsackSolver(), DEFAULT_MAX_STATES_PER_HALF);
+    }
+
+    /**
+     * @brief Constructor for the MeetInTheMiddleSolver class.
+     * @param fallback Engine used when a half has more than maxStatesPerHalf combinations.
+     * @param maxStatesPerHalf Largest number of combinations enumerated for one half.
+     */
+    public MeetInTheMiddleSolver(KnapsackSolver fallback, int maxStatesPerHalf) {
+        if (maxStatesPerHalf < 1) {
+            throw new IllegalArgumentException("maxStatesPerHalf must be positive");
+        }
+        this.fallback = fallback;
+        this.maxStatesPerHalf = maxStatesPerHalf;
+    }
+
+    @Override
+    public Map<List<GoodsItem>, Set<String>> solveKnapsack(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        Half[] halves = split(filterRequestedItems(items, stores), maxVolume, maxItems);
+        if (halves == null) {
+            return fallback.solveKnapsack(items, maxVolume, maxItems, stores);
+        }
+
+        long[] best = join(halves[0].enumerate(maxVolume, maxItems), halves[1].enumerate(maxVolume, maxItems), maxVolume, maxItems);
+        List<GoodsItem> selectedItems = new ArrayList<>();
+        halves[0].decode((int) best[1], selectedItems);
+        halves[1].decode((int) best[2], selectedItems);
+        return toResult(selectedItems, stores);
+    }
+
+    @Override
+    public int optimalValue(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        Half[] halves = split(filterRequestedItems(items, stores), maxVolume, maxItems);
+        if (halves == null) {
+            return fallback.optimalValue(items, maxVolume, maxItems, stores);
+        }
+        return (int) join(halves[0].enumerate(maxVolume, maxItems), halves[1].enumerate(maxVolume, maxItems), maxVolume, maxItems)[0];
+    }
+
+    /**
+     * @brief Capacity sweeps need every (volume, items) cell, so the table always comes from the fallback engine.
+     */
+    @Override
+    public KnapsackTable table(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        return fallback.table(items, maxVolume, maxItems, stores);
+    }
+
+    /**
+     * @brief Splits the useful items into two halves with balanced numbers of combinations.
+     * @param filteredItems Items requested by the stores.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     * @return The two halves, or null if either has more combinations than the state limit.
+     */
+    Half[] split(List<GoodsItem> filteredItems, int maxVolume, int maxItems) {
+        // Items that can never improve a packing are dropped; counts are capped by what can actually fit
+        List<GoodsItem> useful = new ArrayList<>();
+        List<Integer> caps = new ArrayList<>();
+        for (GoodsItem item : filteredItems) {
+            int cap = Math.min(item.getMaxCount(), maxItems);
+            if (item.getVolume() > 0) {
+                cap = Math.min(cap, maxVolume / item.getVolume());
+            }
+            if (item.getValue() > 0 && item.getVolume() >= 0 && cap > 0) {
+                useful.add(item);
+                caps.add(cap);
+            }
+        }
+
+        // Largest radix first, each item goes to the half with fewer combinations so far
+        Integer[] order = new Integer[useful.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(caps.get(b), caps.get(a)));
+        Half[] halves = {new Half(), new Half()};
+        for (int index : order) {
+            Half target = halves[0].combinations <= halves[1].combinations ? halves[0] : halves[1];
+            target.add(useful.get(index), caps.get(index));
+            if (target.combinations > maxStatesPerHalf) {
+                return null;
+            }
+        }
+        return halves;
+    }
+
+    /**
+     * @brief Finds the best pair of combinations from the two halves that fits the volume and item limits.
+     * @param first Frontier of the first half.
+     * @param second Frontier of the second half.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     * @return {value, code in first half, code in second half}.
+     */
+    static long[] join(Frontier first, Frontier second, int maxVolume, int maxItems) {
+        return IntStream.range(0, first.volumes.length).parallel()
+            .mapToObj(firstCount -> {
+                long[] best = {0, 0, 0};
+                long[] firstVolumes = first.volumes[firstCount];
+                for (int secondCount = 0; secondCount < second.volumes.length && firstCount + secondCount <= maxItems; secondCount++) {
+                    long[] secondVolumes = second.volumes[secondCount];
+                    // As the first half's volume shrinks the room for the second half grows, so j only moves forward
+                    int j = 0;
+                    for (int i = firstVolumes.length - 1; i >= 0; i--) {
+                        long room = maxVolume - firstVolumes[i];
+                        while (j < secondVolumes.length && secondVolumes[j] <= room) {
+                            j++;
+                        }
+                        if (j > 0) {
+                            long total = first.values[firstCount][i] + second.values[secondCount][j - 1];
+                            if (total > best[0]) {
+                                best = new long[]{total, first.codes[firstCount][i], second.codes[secondCount][j - 1]};
+                            }
+                        }
+                    }
+                }
+                return best;
+            })
+            .reduce(new long[]{0, 0, 0}, (a, b) -> b[0] > a[0] ? b : a);
+    }
+
+    /**
+     * @brief One half of the items, with each item's count as a digit of a mixed-radix combination code.
+     */
+    static class Half {
+        private final List<GoodsItem> items = new ArrayList<>();
+        private final List<Integer> caps = new ArrayList<>();
+        private long combinations = 1;
+
+        void add(GoodsItem item, int cap) {
+            items.add(item);
+            caps.add(cap);
+            combinations *= cap + 1;
+        }
+
+        /**
+         * @brief Enumerates every combination in parallel and prunes it to per-count Pareto staircases.
+         * @param maxVolume Maximum volume the knapsack can hold.
+         * @param maxItems Maximum number of items that can be packed.
+         * @return Frontier of the combinations that fit on their own.
+         */
+        Frontier enumerate(int maxVolume, int maxItems) {
+            int size = (int) combinations;
+            int digits = items.size();
+            long[] volumes = new long[size];
+            int[] counts = new int[size];
+            long[] values = new long[size];
+
+            IntStream.range(0, (size + CHUNK_SIZE - 1) / CHUNK_SIZE).parallel().forEach(chunk -> {
+                int start = chunk * CHUNK_SIZE;
+                int end = Math.min(size, start + CHUNK_SIZE);
+                int[] digit = new int[digits];
+                long volume = 0;
+                int count = 0;
+                long value = 0;
+                for (int d = 0, rest = start; d < digits; d++) {
+                    digit[d] = rest % (caps.get(d) + 1);
+                    rest /= caps.get(d) + 1;
+                    volume += (long) digit[d] * items.get(d).getVolume();
+                    count += digit[d];
+                    value += (long) digit[d] * items.get(d).getValue();
+                }
+                for (int code = start; code < end; code++) {
+                    volumes[code] = volume;
+                    counts[code] = count;
+                    values[code] = value;
+                    // Increment the mixed-radix code, adjusting the running sums digit by digit
+                    for (int d = 0; d < digits; d++) {
+                        GoodsItem item = items.get(d);
+                        if (digit[d] < caps.get(d)) {
+                            digit[d]++;
+                            volume += item.getVolume();
+                            count++;
+                            value += item.getValue();
+                            break;
+                        }
+                        volume -= (long) digit[d] * item.getVolume();
+                        count -= digit[d];
+                        value -= (long) digit[d] * item.getValue();
+                        digit[d] = 0;
+                    }
+                }
+            });
+
+            // Bucket the fitting combinations by count, each as (volume << 32 | code) so a primitive sort orders them by volume
+            int maxCount = 0;
+            int[] bucketSizes = new int[Math.min(maxItems, caps.stream().mapToInt(Integer::intValue).sum()) + 1];
+            for (int code = 0; code < size; code++) {
+                if (volumes[code] <= maxVolume && counts[code] <= maxItems) {
+                    bucketSizes[counts[code]]++;
+                    maxCount = Math.max(maxCount, counts[code]);
+                }
+            }
+            int[] bucketStarts = new int[maxCount + 2];
+            for (int c = 0; c <= maxCount; c++) {
+                bucketStarts[c + 1] = bucketStarts[c] + bucketSizes[c];
+            }
+            long[] keys = new long[bucketStarts[maxCount + 1]];
+            int[] next = Arrays.copyOf(bucketStarts, maxCount + 1);
+            for (int code = 0; code < size; code++) {
+                if (volumes[code] <= maxVolume && counts[code] <= maxItems) {
+                    keys[next[counts[code]]++] = volumes[code] << 32 | code;
+                }
+            }
+
+            Frontier frontier = new Frontier(maxCount + 1);
+            IntStream.rangeClosed(0, maxCount).parallel().forEach(c -> {
+                Arrays.sort(keys, bucketStarts[c], bucketStarts[c + 1]);
+                frontier.setStaircase(c, keys, bucketStarts[c], bucketStarts[c + 1], values);
+            });
+            return frontier;
+        }
+
+        /**
+         * @brief Appends the items of a combination to a packing.
+         * @param code Mixed-radix combination code.
+         * @param selectedItems Packing the items are added to.
+         */
+        void decode(int code, List<GoodsItem> selectedItems) {
+            for (int d = 0; d < items.size(); d++) {
+                int count = code % (caps.get(d) + 1);
+                code /= caps.get(d) + 1;
+                for (int c = 0; c < count; c++) {
+                    selectedItems.add(items.get(d));
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Pareto staircases of one half: for each count, volumes ascending with strictly ascending values.
+     */
+    static class Frontier {
+        final long[][] volumes;
+        final long[][] values;
+        final int[][] codes;
+
+        Frontier(int counts) {
+            volumes = new long[counts][];
+            values = new long[counts][];
+            codes = new int[counts][];
+        }
+
+        /**
+         * @brief Keeps the combinations not dominated by a smaller-or-equal volume with a higher-or-equal value.
+         * @param count Number of packed items shared by the combinations.
+         * @param keys Combinations of one count as (volume << 32 | code), sorted between from and to.
+         * @param from First key of the count.
+         * @param to End of the count's keys.
+         * @param allValues Value of every combination, indexed by code.
+         */
+        void setStaircase(int count, long[] keys, int from, int to, long[] allValues) {
+            long[] stairVolumes = new long[to - from];
+            long[] stairValues = new long[to - from];
+            int[] stairCodes = new int[to - from];
+            int size = 0;
+            long bestValue = Long.MIN_VALUE;
+            for (int i = from; i < to; ) {
+                // Among combinations with equal volume only the most valuable can be on the staircase
+                long volume = keys[i] >>> 32;
+                int bestCode = (int) keys[i];
+                for (i++; i < to && keys[i] >>> 32 == volume; i++) {
+                    if (allValues[(int) keys[i]] > allValues[bestCode]) {
+                        bestCode = (int) keys[i];
+                    }
+                }
+                if (allValues[bestCode] > bestValue) {
+                    bestValue = allValues[bestCode];
+                    stairVolumes[size] = volume;
+                    stairValues[size] = bestValue;
+                    stairCodes[size] = bestCode;
+                    size++;
+                }
+            }
+            volumes[count] = Arrays.copyOf(stairVolumes, size);
+            values[count] = Arrays.copyOf(stairValues, size);
+            codes[count] = Arrays.copyOf(stairCodes, size);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.truckpacker;
+
+/**
+ * @brief A single change to the orders or stock seen by the streaming planner.
+ * @details A store update replaces that store's requested items and an item update replaces that item's volume,
+ *          value and maxCount; removals drop the store or item entirely. Updates are keyed by name.
+ */
+public class OrderUpdate {
+    private final Store store;
+    private final GoodsItem item;
+    private final String removedStore;
+    private final String removedItem;
+
+    private OrderUpdate(Store store, GoodsItem item, String removedStore, String removedItem) {
+        this.store = store;
+        this.item = item;
+        this.removedStore = removedStore;
+        this.removedItem = removedItem;
+    }
+
+    /**
+     * @brief Creates an update adding a store or replacing its requested items.
+     * @param store Store with its current requested items.
+     * @return The update.
+     */
+    public static OrderUpdate store(Store store) {
+        return new OrderUpdate(store, null, null, null);
+    }
+
+    /**
+     * @brief Creates an update adding an item or replacing its stock.
+     * @param item Item with its current volume, value and maxCount.
+     * @return The update.
+     */
+    public static OrderUpdate item(GoodsItem item) {
+        return new OrderUpdate(null, item, null, null);
+    }
+
+    /**
+     * @brief Creates an update removing a store.
+     * @param name Name of the store.
+     * @return The update.
+     */
+    public static OrderUpdate removeStore(String name) {
+        return new OrderUpdate(null, null, name, null);
+    }
+
+    /**
+     * @brief Creates an update removing an item.
+     * @param name Name of the item.
+     * @return The update.
+     */
+    public static OrderUpdate removeItem(String name) {
+        return new OrderUpdate(null, null, null, name);
+    }
+
+    /**
+     * @return Added or replaced store, or null.
+     */
+    public Store getStore() {
+        return store;
+    }
+
+    /**
+     * @return Added or replaced item, or null.
+     */
+    public GoodsItem getItem() {
+        return item;
+    }
+
+    /**
+     * @return Name of the removed store, or null.
+     */
+    public String getRemovedStore() {
+        return removedStore;
+    }
+
+    /**
+     * @return Name of the removed item, or null.
+     */
+    public String getRemovedItem() {
+        return removedItem;
+    }
+}
@@ -0,0 +1,79 @@
+package com.truckpacker;
+
+import java.util.*;
+
+/**
+ * @brief Packing emitted by the streaming planner after a micro-batch of updates.
+ */
+public class PackingPlan {
+    private final long version;
+    private final Map<List<GoodsItem>, Set<String>> packing;
+    private final int updates;
+    private final long latencyNanos;
+    private final long solveNanos;
+
+    /**
+     * @brief Constructor for the PackingPlan class.
+     * @param version Sequence number of the plan, starting at 1.
+     * @param packing Packed items and the stores that need to be visited, as returned by the solver.
+     * @param updates Number of updates coalesced into this plan.
+     * @param latencyNanos Time from the oldest coalesced update to the plan being ready.
+     * @param solveNanos Time spent in the solver.
+     */
+    public PackingPlan(long version, Map<List<GoodsItem>, Set<String>> packing, int updates, long latencyNanos, long solveNanos) {
+        this.version = version;
+        this.packing = packing;
+        this.updates = updates;
+        this.latencyNanos = latencyNanos;
+        this.solveNanos = solveNanos;
+    }
+
+    /**
+     * @return Sequence number of the plan, starting at 1.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Packed items and the stores that need to be visited.
+     */
+    public Map<List<GoodsItem>, Set<String>> getPacking() {
+        return packing;
+    }
+
+    /**
+     * @return Packed items.
+     */
+    public List<GoodsItem> getPackedItems() {
+        return packing.keySet().iterator().next();
+    }
+
+    /**
+     * @return Stores that need to be visited.
+     */
+    public Set<String> getStoresToVisit() {
+        return packing.values().iterator().next();
+    }
+
+    /**
+     * @return Number of updates coalesced into this plan.
+     */
+    public int getUpdates() {
+        return updates;
+    }
+
+    /**
+     * @return Time from the oldest coalesced update to the plan being ready, in nanoseconds.
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * @return Time spent in the solver, in nanoseconds.
+     */
+    public long getSolveNanos() {
+        return solveNanos;
+    }
+}
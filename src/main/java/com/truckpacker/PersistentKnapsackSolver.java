@@ -0,0 +1,76 @@
+package com.truckpacker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * @brief Knapsack solver that reuses packings stored on disk by earlier runs before solving with another engine.
+ */
+public class PersistentKnapsackSolver extends KnapsackSolver {
+
+    private final KnapsackSolver delegate;
+    private final SolutionStore store;
+
+    /**
+     * @brief Constructor for the PersistentKnapsackSolver class.
+     * @param delegate Engine used for problems not found in the store.
+     * @param store Store of earlier solutions; new solutions are added to it.
+     */
+    public PersistentKnapsackSolver(KnapsackSolver delegate, SolutionStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public Map<List<GoodsItem>, Set<String>> solveKnapsack(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        List<GoodsItem> filteredItems = filterRequestedItems(items, stores);
+        byte[] key = SolutionStore.fingerprint(delegate.getClass().getName(), filteredItems, stores, maxVolume, maxItems);
+
+        try {
+            SolutionStore.Solution cached = store.get(key);
+            if (cached != null) {
+                List<GoodsItem> selectedItems = new ArrayList<>();
+                for (int itemIndex : cached.getItemIndices()) {
+                    selectedItems.add(filteredItems.get(itemIndex));
+                }
+                Map<List<GoodsItem>, Set<String>> result = new HashMap<>();
+                result.put(selectedItems, new HashSet<>(cached.getStoresToVisit()));
+                return result;
+            }
+
+            Map<List<GoodsItem>, Set<String>> result = delegate.solveKnapsack(items, maxVolume, maxItems, stores);
+            List<GoodsItem> selectedItems = result.keySet().iterator().next();
+            int[] itemIndices = new int[selectedItems.size()];
+            for (int i = 0; i < itemIndices.length; i++) {
+                itemIndices[i] = identityIndex(filteredItems, selectedItems.get(i));
+            }
+            store.put(key, new SolutionStore.Solution(itemIndices, result.values().iterator().next()));
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int optimalValue(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        return delegate.optimalValue(items, maxVolume, maxItems, stores);
+    }
+
+    @Override
+    public KnapsackTable table(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+        return delegate.table(items, maxVolume, maxItems, stores);
+    }
+
+    /**
+     * @brief Finds an item by identity, since duplicate items may share a name and attributes.
+     */
+    private static int identityIndex(List<GoodsItem> filteredItems, GoodsItem item) {
+        for (int i = 0; i < filteredItems.size(); i++) {
+            if (filteredItems.get(i) == item) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Packed item " + item.getName() + " is not among the requested items");
+    }
+}
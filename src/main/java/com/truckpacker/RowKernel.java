@@ -0,0 +1,19 @@
+package com.truckpacker;
+
+/**
+ * @brief Row kernel for the DP transition of the truckpacker knapsack problem.
+ * @details Implementations apply target[i] = max(target[i], source[i] + addend) over a contiguous run of cells.
+ */
+interface RowKernel {
+
+    /**
+     * @brief Applies the shifted elementwise max of one DP row onto another.
+     * @param source Previous DP layer.
+     * @param sourceOffset Index of the first source cell.
+     * @param target Current DP layer, updated in place.
+     * @param targetOffset Index of the first target cell.
+     * @param length Number of cells to update.
+     * @param addend Value added to every source cell before the comparison.
+     */
+    void maxShifted(int[] source, int sourceOffset, int[] target, int targetOffset, int length, int addend);
+}
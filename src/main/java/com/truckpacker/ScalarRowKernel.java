@@ -0,0 +1,17 @@
+package com.truckpacker;
+
+/**
+ * @brief Plain loop implementation of the DP row kernel, available on every JDK.
+ */
+class ScalarRowKernel implements RowKernel {
+
+    @Override
+    public void maxShifted(int[] source, int sourceOffset, int[] target, int targetOffset, int length, int addend) {
+        for (int i = 0; i < length; i++) {
+            int newValue = source[sourceOffset + i] + addend;
+            if (newValue > target[targetOffset + i]) {
+                target[targetOffset + i] = newValue;
+            }
+        }
+    }
+}
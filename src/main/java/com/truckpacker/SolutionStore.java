@@ -0,0 +1,602 @@
+package com.truckpacker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * @brief Persistent store of solved packings, reused across runs.
+ * @details Solutions are appended to a data file as checksummed records and located through an open-addressing
+ *          hash index that is memory-mapped from a second file. The data file starts with a compaction generation;
+ *          the index header records the generation and data length it covers, and is only advanced after the
+ *          records it covers have been forced to disk. When the data file grows past its size cap, the newest
+ *          records that fit in half the cap are compacted to the front and the generation is incremented.
+ *          Several processes may share one directory (one store instance per process): appends and compaction
+ *          hold a file lock, the index is rebuilt in place and never shrinks, and every append first catches up
+ *          with the shared index header, remapping the index if another process grew it and rebuilding it if the
+ *          generation changed. Lookups take no file lock and may miss while another process compacts. Records
+ *          past the indexed length are validated on catch-up; corrupt bytes are skipped, and a tail is only cut
+ *          off when no valid record follows it.
+ */
+public class SolutionStore implements Closeable {
+
+    /** Name of the append-only data file. */
+    public static final String DATA_FILE = "solutions.dat";
+
+    /** Name of the memory-mapped index file. */
+    public static final String INDEX_FILE = "solutions.idx";
+
+    private static final int DATA_MAGIC = 0x53444154;  // "SDAT"
+    private static final int DATA_HEADER_BYTES = 16;  // magic, reserved, compaction generation
+    private static final int RECORD_MAGIC = 0x534F4C31;  // "SOL1"
+    private static final int INDEX_MAGIC = 0x49445832;  // "IDX2"
+    private static final int KEY_BYTES = 32;
+    private static final int RECORD_HEADER_BYTES = 8 + KEY_BYTES;  // magic, payload length, key
+    private static final int CHECKSUM_BYTES = 4;
+    private static final int INDEX_HEADER_BYTES = 32;  // magic, slot count, indexed data length, generation, entries
+    private static final int INDEX_SLOTS_POSITION = 4;
+    private static final int INDEX_LENGTH_POSITION = 8;
+    private static final int INDEX_GENERATION_POSITION = 16;
+    private static final int INDEX_ENTRIES_POSITION = 24;
+    private static final long INVALID_GENERATION = -1;  // Index is being rebuilt or records are being moved
+    private static final int SLOT_BYTES = 16;  // key tag, record offset + 1
+    private static final int INITIAL_SLOTS = 1024;
+    private static final int SCAN_CHUNK_BYTES = 1 << 16;
+
+    /**
+     * @brief A stored packing: positions of the packed items in the filtered item list and the stores to visit.
+     */
+    public static class Solution {
+        private final int[] itemIndices;
+        private final Set<String> storesToVisit;
+
+        /**
+         * @brief Constructor for the Solution class.
+         * @param itemIndices Index in the filtered item list of every packed item, in packing order.
+         * @param storesToVisit Names of the stores to visit.
+         */
+        public Solution(int[] itemIndices, Set<String> storesToVisit) {
+            this.itemIndices = itemIndices;
+            this.storesToVisit = storesToVisit;
+        }
+
+        /**
+         * @return Index in the filtered item list of every packed item, in packing order.
+         */
+        public int[] getItemIndices() {
+            return itemIndices;
+        }
+
+        /**
+         * @return Names of the stores to visit.
+         */
+        public Set<String> getStoresToVisit() {
+            return storesToVisit;
+        }
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final FileChannel data;
+    private final FileChannel indexChannel;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private MappedByteBuffer index;
+    private int slotCount;
+    private int entries;
+    private long dataLength;
+    private long generation;
+
+    /**
+     * @brief Opens or creates a store, recovering from an interrupted previous run.
+     * @param directory Directory holding the data and index files.
+     * @param maxBytes Size of the data file above which it is compacted.
+     * @throws IOException If the files cannot be opened or the data file is not a solution store.
+     */
+    @SuppressWarnings("try")  // The file lock is held for the try block and never referenced
+    public SolutionStore(Path directory, long maxBytes) throws IOException {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.data = FileChannel.open(directory.resolve(DATA_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try (FileLock fileLock = data.lock()) {
+            if (data.size() < DATA_HEADER_BYTES) {
+                // New store, or a crash while creating it
+                data.truncate(0);
+                writeDataHeader(0);
+                data.force(true);
+            }
+            readDataGeneration();  // Rejects files that are not solution stores
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            indexChannel.close();
+            data.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @brief Computes the canonical key of a problem.
+     * @details Filtered items keep their order, since it decides which of several optimal packings is returned.
+     *          Stores are sorted by name and their requests by item name, since neither order affects the result.
+     * @param engine Name of the engine that solves the problem; engines may choose different optimal packings.
+     * @param filteredItems Items requested by the stores, in layer order.
+     * @param stores List of stores with their requested items.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     * @return SHA-256 fingerprint of the problem.
+     */
+    public static byte[] fingerprint(String engine, List<GoodsItem> filteredItems, List<Store> stores, int maxVolume, int maxItems) {
+        List<String> canonicalStores = new ArrayList<>();
+        for (Store store : stores) {
+            canonicalStores.add(store.getName() + "\u0000" + String.join("\u0000", new TreeSet<>(store.getRequestedItems())));
+        }
+        Collections.sort(canonicalStores);
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(engine);
+            out.writeInt(maxVolume);
+            out.writeInt(maxItems);
+            out.writeInt(filteredItems.size());
+            for (GoodsItem item : filteredItems) {
+                out.writeUTF(item.getName());
+                out.writeInt(item.getVolume());
+                out.writeInt(item.getValue());
+                out.writeInt(item.getMaxCount());
+            }
+            out.writeInt(canonicalStores.size());
+            for (String store : canonicalStores) {
+                byte[] encoded = store.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+            return MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint problem", e);
+        }
+    }
+
+    /**
+     * @brief Looks up a solution.
+     * @param key Fingerprint of the problem.
+     * @return The stored solution, or null if the problem has not been solved before.
+     * @throws IOException If the data file cannot be read.
+     */
+    @SuppressWarnings("try")  // The file lock is held for the try block and never referenced
+    public Solution get(byte[] key) throws IOException {
+        lock.readLock().lock();
+        try {
+            if (index.getLong(INDEX_GENERATION_POSITION) == generation && index.getInt(INDEX_SLOTS_POSITION) == slotCount) {
+                return lookup(key);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Another process compacted the data file or resized the index; catch up before looking up
+        lock.writeLock().lock();
+        try (FileLock fileLock = data.lock()) {
+            refresh();
+            return lookup(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @brief Appends a solution unless the problem is already stored.
+     * @param key Fingerprint of the problem.
+     * @param solution Solution to store.
+     * @throws IOException If the data or index file cannot be written.
+     */
+    @SuppressWarnings("try")  // The file lock is held for the try block and never referenced
+    public void put(byte[] key, Solution solution) throws IOException {
+        byte[] record = encodeRecord(key, solution);
+        lock.writeLock().lock();
+        try (FileLock fileLock = data.lock()) {
+            refresh();  // Another process may have appended, compacted or grown the index since we last looked
+            if (find(key) != null) {
+                return;
+            }
+
+            writeFully(ByteBuffer.wrap(record), dataLength);
+            data.force(false);  // The record must be on disk before the index header covers it
+            insert(key, dataLength);
+            dataLength += record.length;
+            publishHeader();
+            if (dataLength > maxBytes) {
+                compact();
+            } else if (2L * entries > slotCount) {
+                rebuildIndex(slotCount * 2);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of stored solutions.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Length of the valid part of the data file in bytes.
+     */
+    public long dataLength() {
+        lock.readLock().lock();
+        try {
+            return dataLength;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @brief Flushes both files to disk and closes them.
+     * @throws IOException If a file cannot be flushed.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            index.force();
+            indexChannel.close();
+            data.force(true);
+            data.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @brief Catches up with the shared index header; the caller holds the write lock and the file lock.
+     * @details Remaps the index if another process grew it, rebuilds it if it is missing, corrupt or belongs to
+     *          another compaction generation, and indexes records appended after the indexed length.
+     */
+    private void refresh() throws IOException {
+        long fileGeneration = readDataGeneration();
+        ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_BYTES);
+        boolean complete = readFully(indexChannel, header, 0);
+        int slots = header.getInt(INDEX_SLOTS_POSITION);
+        long indexedLength = header.getLong(INDEX_LENGTH_POSITION);
+        boolean slotsValid = complete && header.getInt(0) == INDEX_MAGIC && slots >= INITIAL_SLOTS && Integer.bitCount(slots) == 1
+            && indexChannel.size() >= INDEX_HEADER_BYTES + (long) slots * SLOT_BYTES;
+
+        if (slotsValid && header.getLong(INDEX_GENERATION_POSITION) == fileGeneration
+                && indexedLength >= DATA_HEADER_BYTES && indexedLength <= data.size()) {
+            if (index == null || slots != slotCount) {
+                map(slots);
+            }
+            entries = header.getInt(INDEX_ENTRIES_POSITION);
+            dataLength = indexedLength;
+            generation = fileGeneration;
+            if (data.size() > dataLength) {
+                indexNewRecords();  // Left by a writer that crashed before publishing them
+            }
+            return;
+        }
+        rebuildIndex(Math.max(slotsValid ? slots : INITIAL_SLOTS, slotCount));
+    }
+
+    /**
+     * @brief Maps the index for the given number of slots, growing the file if needed; it never shrinks.
+     */
+    private void map(int slots) throws IOException {
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_BYTES + (long) slots * SLOT_BYTES);
+        slotCount = slots;
+    }
+
+    /**
+     * @brief Recreates the index in place with the given number of slots from every valid record in the data file.
+     * @details The file is rewritten rather than replaced, so other processes' mappings stay attached to it.
+     */
+    private void rebuildIndex(int slots) throws IOException {
+        map(slots);
+        index.putLong(INDEX_GENERATION_POSITION, INVALID_GENERATION);  // Invalid until the rebuild is published
+        for (int position = INDEX_HEADER_BYTES; position < index.capacity(); position += Long.BYTES) {
+            index.putLong(position, 0);
+        }
+        entries = 0;
+        dataLength = DATA_HEADER_BYTES;
+        generation = readDataGeneration();
+        indexNewRecords();
+    }
+
+    /**
+     * @brief Indexes the valid records after the indexed length and publishes the new header.
+     * @details Corrupt bytes followed by a valid record are skipped; a tail is only cut off when no valid record
+     *          follows it, so records appended by another process are never lost.
+     */
+    private void indexNewRecords() throws IOException {
+        long position = dataLength;
+        byte[] key = new byte[KEY_BYTES];
+        while (position < data.size()) {
+            long length = validRecordLength(position, key);
+            if (length < 0) {
+                long next = nextValidRecord(position + 1);
+                if (next < 0) {
+                    data.truncate(position);  // Torn write from a crash; everything before it is intact
+                    break;
+                }
+                position = next;
+                continue;
+            }
+            if (find(key) == null) {
+                insert(key, position);
+            }
+            position += length;
+            if (2L * entries > slotCount) {
+                rebuildIndex(slotCount * 2);
+                return;
+            }
+        }
+        dataLength = position;
+        publishHeader();
+    }
+
+    /**
+     * @brief Moves the newest records that fit in half the size cap to the front of the data file.
+     * @details Records only move towards the start, so a crash part way leaves valid records followed by
+     *          older copies or a torn tail, both of which recovery handles. The index is marked invalid while
+     *          records move, and the new generation tells other processes to catch up.
+     */
+    private void compact() throws IOException {
+        List<long[]> records = new ArrayList<>();  // {offset, length}
+        byte[] key = new byte[KEY_BYTES];
+        long position = DATA_HEADER_BYTES;
+        while (position >= 0 && position < data.size()) {
+            long length = validRecordLength(position, key);
+            if (length < 0) {
+                position = nextValidRecord(position + 1);
+                continue;
+            }
+            records.add(new long[]{position, length});
+            position += length;
+        }
+        int first = records.size();
+        long kept = DATA_HEADER_BYTES;
+        while (first > 0 && kept + records.get(first - 1)[1] <= maxBytes / 2) {
+            kept += records.get(--first)[1];
+        }
+
+        index.putLong(INDEX_GENERATION_POSITION, INVALID_GENERATION);  // Force a full rebuild if we crash while moving records
+        long target = DATA_HEADER_BYTES;
+        for (long[] record : records.subList(first, records.size())) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) record[1]);
+            readFully(data, buffer, record[0]);
+            buffer.flip();
+            writeFully(buffer, target);
+            target += record[1];
+        }
+        data.truncate(target);
+        writeDataHeader(generation + 1);
+        data.force(true);
+        rebuildIndex(slotCount);
+    }
+
+    /**
+     * @brief Finds the next offset holding a valid record, for resynchronising after corrupt bytes.
+     * @param from First offset to check.
+     * @return Offset of the next valid record, or -1 if none follows.
+     */
+    private long nextValidRecord(long from) throws IOException {
+        byte[] key = new byte[KEY_BYTES];
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_CHUNK_BYTES);
+        // Chunks overlap by three bytes so a magic number spanning two chunks is still seen
+        for (long start = from; start + Integer.BYTES <= data.size(); start += SCAN_CHUNK_BYTES - (Integer.BYTES - 1)) {
+            chunk.clear();
+            readFully(data, chunk, start);
+            for (int i = 0; i + Integer.BYTES <= chunk.position(); i++) {
+                if (chunk.getInt(i) == RECORD_MAGIC && validRecordLength(start + i, key) > 0) {
+                    return start + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Publishes the in-memory index state in the shared header; the generation is written last.
+     */
+    private void publishHeader() {
+        index.putInt(0, INDEX_MAGIC);
+        index.putInt(INDEX_SLOTS_POSITION, slotCount);
+        index.putLong(INDEX_LENGTH_POSITION, dataLength);
+        index.putInt(INDEX_ENTRIES_POSITION, entries);
+        index.putLong(INDEX_GENERATION_POSITION, generation);
+    }
+
+    private void writeDataHeader(long newGeneration) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_BYTES);
+        header.putInt(DATA_MAGIC).putInt(0).putLong(newGeneration).flip();
+        writeFully(header, 0);
+    }
+
+    /**
+     * @return Compaction generation stored at the start of the data file.
+     */
+    private long readDataGeneration() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_BYTES);
+        if (!readFully(data, header, 0) || header.getInt(0) != DATA_MAGIC) {
+            throw new IOException(directory.resolve(DATA_FILE) + " is not a solution store data file");
+        }
+        return header.getLong(8);
+    }
+
+    /**
+     * @brief Checks the record at a position.
+     * @param position Offset of the record in the data file.
+     * @param key Receives the key of a valid record.
+     * @return Length of the record in bytes, or -1 if it is truncated or corrupt.
+     */
+    private long validRecordLength(long position, byte[] key) throws IOException {
+        byte[] payload = readRecord(position, key);
+        return payload == null ? -1 : RECORD_HEADER_BYTES + payload.length + CHECKSUM_BYTES;
+    }
+
+    /**
+     * @brief Reads and verifies the record at a position in one pass.
+     * @param position Offset of the record in the data file.
+     * @param key Receives the key of a valid record.
+     * @return Payload of the record, or null if it is truncated or corrupt.
+     */
+    private byte[] readRecord(long position, byte[] key) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        if (position < DATA_HEADER_BYTES || !readFully(data, header, position) || header.getInt(0) != RECORD_MAGIC) {
+            return null;
+        }
+        int payloadLength = header.getInt(4);
+        if (payloadLength < 0 || position + RECORD_HEADER_BYTES + payloadLength + CHECKSUM_BYTES > data.size()) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(payloadLength + CHECKSUM_BYTES);
+        if (!readFully(data, body, position + RECORD_HEADER_BYTES)) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 8, KEY_BYTES);
+        crc.update(body.array(), 0, payloadLength);
+        if ((int) crc.getValue() != body.getInt(payloadLength)) {
+            return null;
+        }
+        System.arraycopy(header.array(), 8, key, 0, KEY_BYTES);
+        return Arrays.copyOf(body.array(), payloadLength);
+    }
+
+    /**
+     * @brief Looks up and decodes a key's record.
+     * @return The stored solution, or null if the key is not stored.
+     */
+    private Solution lookup(byte[] key) throws IOException {
+        byte[] payload = find(key);
+        return payload == null ? null : decode(payload);
+    }
+
+    /**
+     * @brief Finds a key's record by linear probing, reading it once and verifying the full key and checksum.
+     * @details The key is checked against the record actually read, since another process may move records.
+     * @return Payload of the record, or null if the key is not stored.
+     */
+    private byte[] find(byte[] key) throws IOException {
+        long tag = tag(key);
+        byte[] storedKey = new byte[KEY_BYTES];
+        for (int probe = 0, slot = (int) tag & (slotCount - 1); probe < slotCount; probe++, slot = (slot + 1) & (slotCount - 1)) {
+            long slotTag = index.getLong(slotPosition(slot));
+            if (slotTag == 0) {
+                return null;
+            }
+            if (slotTag == tag) {
+                byte[] payload = readRecord(index.getLong(slotPosition(slot) + 8) - 1, storedKey);
+                if (payload != null && Arrays.equals(storedKey, key)) {
+                    return payload;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void insert(byte[] key, long offset) {
+        long tag = tag(key);
+        int slot = (int) tag & (slotCount - 1);
+        while (index.getLong(slotPosition(slot)) != 0) {
+            slot = (slot + 1) & (slotCount - 1);
+        }
+        index.putLong(slotPosition(slot) + 8, offset + 1);
+        index.putLong(slotPosition(slot), tag);
+        entries++;
+    }
+
+    private static byte[] encodeRecord(byte[] key, Solution solution) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeInt(solution.getItemIndices().length);
+        for (int itemIndex : solution.getItemIndices()) {
+            payload.writeInt(itemIndex);
+        }
+        Set<String> stores = new TreeSet<>(solution.getStoresToVisit());
+        payload.writeInt(stores.size());
+        for (String store : stores) {
+            payload.writeUTF(store);
+        }
+        byte[] payloadArray = payloadBytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(key);
+        crc.update(payloadArray);
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(recordBytes);
+        record.writeInt(RECORD_MAGIC);
+        record.writeInt(payloadArray.length);
+        record.write(key);
+        record.write(payloadArray);
+        record.writeInt((int) crc.getValue());
+        return recordBytes.toByteArray();
+    }
+
+    private static Solution decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int[] itemIndices = new int[in.readInt()];
+        for (int i = 0; i < itemIndices.length; i++) {
+            itemIndices[i] = in.readInt();
+        }
+        Set<String> storesToVisit = new HashSet<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            storesToVisit.add(in.readUTF());
+        }
+        return new Solution(itemIndices, storesToVisit);
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            data.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static long tag(byte[] key) {
+        long tag = ByteBuffer.wrap(key).getLong();
+        return tag == 0 ? 1 : tag;  // 0 marks an empty slot
+    }
+
+    private static int slotPosition(int slot) {
+        return INDEX_HEADER_BYTES + slot * SLOT_BYTES;
+    }
+}
@@ -0,0 +1,52 @@
+package com.truckpacker;
+
+import java.util.*;
+
+/**
+ * @brief Attribution kernel: maps between store requests and items.
+ */
+final class StoreAttribution {
+
+    private StoreAttribution() {
+    }
+
+    /**
+     * @brief Keeps only the items requested by at least one store, in their original order.
+     * @param items List of goods items.
+     * @param stores List of stores with their requested items.
+     * @return List of requested items.
+     */
+    static List<GoodsItem> requestedItems(List<GoodsItem> items, List<Store> stores) {
+        Set<String> requestedItemNames = new HashSet<>();
+        for (Store store : stores) {
+            requestedItemNames.addAll(store.getRequestedItems());  // Collect all requested item names
+        }
+
+        // Create a list of filtered items based on store requests
+        List<GoodsItem> filteredItems = new ArrayList<>();
+        for (GoodsItem item : items) {
+            if (requestedItemNames.contains(item.getName())) {
+                filteredItems.add(item);
+            }
+        }
+        return filteredItems;
+    }
+
+    /**
+     * @brief Determines which stores must be visited to collect the packed items.
+     * @param selectedItems Packed goods items.
+     * @param stores List of stores with their requested items.
+     * @return Names of the stores that requested at least one packed item.
+     */
+    static Set<String> storesToVisit(List<GoodsItem> selectedItems, List<Store> stores) {
+        Set<String> storesToVisit = new HashSet<>();
+        for (GoodsItem item : selectedItems) {
+            for (Store store : stores) {
+                if (store.getRequestedItems().contains(item.getName())) {
+                    storesToVisit.add(store.getName());  // Add store if it requested the selected item
+                }
+            }
+        }
+        return storesToVisit;
+    }
+}
@@ -0,0 +1,213 @@
+package com.truckpacker;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @brief Streaming front end that keeps a truck plan up to date from a feed of order and stock updates.
+ * @details Subscribes to OrderUpdate publishers and publishes a PackingPlan per micro-batch. Updates are applied
+ *          to the current orders as they arrive, so several updates to the same store or item collapse into one.
+ *          A batch is solved once it holds maxBatchSize updates or its oldest update is maxDelayMillis old.
+ *          Solves run one at a time on a single thread; updates arriving during a solve, or while a slow
+ *          subscriber is blocking publication, are folded into the next batch, so a burst costs at most one
+ *          more solve instead of one queued solve per update.
+ */
+public class StreamingPlanner implements Flow.Processor<OrderUpdate, PackingPlan>, AutoCloseable {
+
+    private final KnapsackSolver solver;
+    private final int maxVolume;
+    private final int maxItems;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    private final SubmissionPublisher<PackingPlan> publisher;
+    private final ScheduledExecutorService solveThread;
+
+    private final Map<String, GoodsItem> items = new LinkedHashMap<>();
+    private final Map<String, Store> stores = new LinkedHashMap<>();
+    private Flow.Subscription subscription;
+    private int pendingUpdates;
+    private long oldestPendingNanos;
+    private boolean flushQueued;
+    private ScheduledFuture<?> delayTimer;
+    private long version;
+    private long solves;
+    private long updates;
+
+    /**
+     * @brief Constructor for the StreamingPlanner class.
+     * @param solver Solver used for every micro-batch.
+     * @param maxVolume Maximum volume the knapsack can hold.
+     * @param maxItems Maximum number of items that can be packed.
+     * @param maxBatchSize Number of updates that triggers a solve.
+     * @param maxDelayMillis Longest an update waits before its batch is solved.
+     * @param subscriberBuffer Plans buffered per subscriber before publication blocks the solve thread.
+     */
+    public StreamingPlanner(KnapsackSolver solver, int maxVolume, int maxItems, int maxBatchSize, long maxDelayMillis,
+                            int subscriberBuffer) {
+        if (maxBatchSize < 1 || maxDelayMillis < 0 || subscriberBuffer < 1) {
+            throw new IllegalArgumentException("Batch size and subscriber buffer must be positive");
+        }
+        this.solver = solver;
+        this.maxVolume = maxVolume;
+        this.maxItems = maxItems;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.publisher = new SubmissionPublisher<>(ForkJoinPool.commonPool(), subscriberBuffer);
+        this.solveThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "streaming-planner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super PackingPlan> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    @Override
+    public synchronized void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();  // One upstream feed per planner
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(maxBatchSize);
+    }
+
+    @Override
+    public void onNext(OrderUpdate update) {
+        synchronized (this) {
+            if (solveThread.isShutdown()) {
+                return;  // Closed; late updates from a cancelled feed are dropped
+            }
+            apply(update);
+            updates++;
+            if (pendingUpdates++ == 0) {
+                oldestPendingNanos = System.nanoTime();
+                delayTimer = solveThread.schedule(this::requestFlush, maxDelayMillis, TimeUnit.MILLISECONDS);
+            }
+            if (pendingUpdates >= maxBatchSize) {
+                requestFlush();
+            }
+        }
+        // Applying an update is cheap, so upstream is only held back by this thread, never by the solver
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        finish(() -> publisher.closeExceptionally(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        finish(() -> {
+            flush();  // Solve whatever arrived after the last batch before closing
+            publisher.close();
+        });
+    }
+
+    /**
+     * @brief Stops solving and closes the plan stream without waiting for the feed to complete.
+     */
+    @Override
+    public void close() {
+        Flow.Subscription current;
+        synchronized (this) {
+            current = subscription;
+        }
+        if (current != null) {
+            current.cancel();
+        }
+        solveThread.shutdownNow();
+        publisher.close();
+    }
+
+    /**
+     * @return Number of updates received.
+     */
+    public synchronized long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * @return Number of solves run.
+     */
+    public synchronized long getSolves() {
+        return solves;
+    }
+
+    /**
+     * @brief Runs a last task on the solve thread after any queued solve, then stops the thread.
+     */
+    private void finish(Runnable last) {
+        try {
+            solveThread.execute(last);
+            solveThread.shutdown();
+        } catch (RejectedExecutionException e) {
+            publisher.close();  // Already closed by close() or a failed solve
+        }
+    }
+
+    private void apply(OrderUpdate update) {
+        if (update.getStore() != null) {
+            stores.put(update.getStore().getName(), update.getStore());
+        } else if (update.getItem() != null) {
+            items.put(update.getItem().getName(), update.getItem());
+        } else if (update.getRemovedStore() != null) {
+            stores.remove(update.getRemovedStore());
+        } else if (update.getRemovedItem() != null) {
+            items.remove(update.getRemovedItem());
+        }
+    }
+
+    /**
+     * @brief Queues a solve of the pending updates unless one is already queued.
+     */
+    private synchronized void requestFlush() {
+        if (!flushQueued && pendingUpdates > 0 && !solveThread.isShutdown()) {
+            flushQueued = true;
+            solveThread.execute(this::flush);
+        }
+    }
+
+    /**
+     * @brief Solves the current orders and publishes the plan; runs on the solve thread only.
+     */
+    private void flush() {
+        List<GoodsItem> itemSnapshot;
+        List<Store> storeSnapshot;
+        int batchUpdates;
+        long oldestNanos;
+        synchronized (this) {
+            flushQueued = false;
+            if (pendingUpdates == 0) {
+                return;  // Already covered by an earlier solve
+            }
+            if (delayTimer != null) {
+                delayTimer.cancel(false);
+            }
+            itemSnapshot = new ArrayList<>(items.values());
+            storeSnapshot = new ArrayList<>(stores.values());
+            batchUpdates = pendingUpdates;
+            oldestNanos = oldestPendingNanos;
+            pendingUpdates = 0;
+        }
+
+        try {
+            long solveStart = System.nanoTime();
+            Map<List<GoodsItem>, Set<String>> packing = solver.solveKnapsack(itemSnapshot, maxVolume, maxItems, storeSnapshot);
+            long solveEnd = System.nanoTime();
+            PackingPlan plan;
+            synchronized (this) {
+                solves++;
+                plan = new PackingPlan(++version, packing, batchUpdates, solveEnd - oldestNanos, solveEnd - solveStart);
+            }
+            publisher.submit(plan);  // Blocks while a subscriber's buffer is full; updates keep coalescing meanwhile
+        } catch (RuntimeException e) {
+            publisher.closeExceptionally(e);
+            close();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.truckpacker;
+
+/**
+ * @brief Knapsack solver that runs the DP transition on the JDK Vector API when it is available.
+ * @details The vector kernel is only compiled with the vector-api Maven profile and only loaded when the
+ *          jdk.incubator.vector module is present at runtime; otherwise the scalar kernel is used.
+ */
+public class VectorKnapsackSolver extends KnapsackSolver {
+
+    /** Fully qualified name of the kernel compiled from src/vector/java. */
+    static final String VECTOR_KERNEL_CLASS = "com.truckpacker.VectorRowKernel";
+
+    /** Name of the incubator module providing IntVector. */
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private final boolean vectorized;
+
+    /**
+     * @brief Constructor for the VectorKnapsackSolver class.
+     */
+    public VectorKnapsackSolver() {
+        this(loadKernel());
+    }
+
+    private VectorKnapsackSolver(RowKernel kernel) {
+        super(kernel);
+        this.vectorized = !(kernel instanceof ScalarRowKernel);
+    }
+
+    /**
+     * @return True if the DP transition runs on the Vector API, false if it fell back to scalar code.
+     */
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    /**
+     * @brief Loads the vector kernel, falling back to the scalar kernel when it cannot be used.
+     * @return The row kernel to use for the DP transition.
+     */
+    static RowKernel loadKernel() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return new ScalarRowKernel();
+        }
+        try {
+            return (RowKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarRowKernel();
+        }
+    }
+}
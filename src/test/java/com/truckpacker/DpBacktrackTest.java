@@ -0,0 +1,67 @@
+package com.truckpacker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Unit tests for the backtrack kernel.
+ */
+public class DpBacktrackTest {
+
+    private static int[][] fill(List<GoodsItem> items, int maxVolume, int maxItems) {
+        return DpFill.fill(items, maxVolume, maxItems,
+                           (previous, current, item) -> DpTransition.apply(new ScalarRowKernel(), previous, current, item, maxVolume, maxItems));
+    }
+
+    /**
+     * Test case to ensure the optimal packing is reconstructed with the right counts, last item first.
+     */
+    @Test
+    public void testPackedItemsAtFullCapacity() {
+        GoodsItem small = new GoodsItem("small", 1, 1, 5);
+        GoodsItem large = new GoodsItem("large", 4, 10, 1);
+        List<GoodsItem> items = List.of(small, large);
+        int[][] dp = fill(items, 6, 3);
+
+        assertEquals(List.of(large, small, small), DpBacktrack.packedItems(items, dp, 6, 6, 3),
+                     "Expected the large item and two small ones.");
+    }
+
+    /**
+     * Test case to ensure reconstruction starts from the requested capacity rather than the table's.
+     */
+    @Test
+    public void testPackedItemsAtSmallerCapacity() {
+        GoodsItem small = new GoodsItem("small", 1, 1, 5);
+        GoodsItem large = new GoodsItem("large", 4, 10, 1);
+        List<GoodsItem> items = List.of(small, large);
+        int[][] dp = fill(items, 6, 3);
+
+        assertEquals(List.of(small, small, small), DpBacktrack.packedItems(items, dp, 6, 3, 3), "Expected only small items to fit in 3.");
+        assertEquals(List.of(large), DpBacktrack.packedItems(items, dp, 6, 6, 1), "Expected the large item alone with one slot.");
+        assertEquals(List.of(), DpBacktrack.packedItems(items, dp, 6, 0, 3), "Expected nothing to fit in no volume.");
+    }
+
+    /**
+     * Test case to ensure an empty table gives an empty packing.
+     */
+    @Test
+    public void testPackedItemsWithoutItems() {
+        assertEquals(List.of(), DpBacktrack.packedItems(List.of(), DpFill.allocate(0, 4, 2), 4, 4, 2), "Expected an empty packing.");
+    }
+
+    /**
+     * Test case to ensure a table no transition can explain ends the walk instead of looping forever.
+     */
+    @Test
+    public void testPackedItemsStopsOnInconsistentTable() {
+        GoodsItem item = new GoodsItem("item1", 1, 1, 1);
+        int[][] dp = DpFill.allocate(1, 2, 1);
+        dp[1][DpFill.cell(2, 1, 2)] = 50;
+
+        assertEquals(List.of(), DpBacktrack.packedItems(List.of(item), dp, 2, 2, 1), "Expected no packing from an inconsistent cell.");
+    }
+}
@@ -0,0 +1,57 @@
+package com.truckpacker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Unit tests for the fill kernel.
+ */
+public class DpFillTest {
+
+    /**
+     * Test case to ensure the table has an empty layer plus one count-major layer per item.
+     */
+    @Test
+    public void testAllocateShapeAndLayout() {
+        int[][] dp = DpFill.allocate(3, 9, 4);
+
+        assertEquals(4, dp.length, "Expected the empty layer plus one layer per item.");
+        assertEquals(50, dp[0].length, "Expected (maxItems + 1) * (maxVolume + 1) cells per layer.");
+        assertEquals(0, DpFill.cell(0, 0, 9), "Expected the empty capacity first.");
+        assertEquals(7, DpFill.cell(7, 0, 9), "Expected volume to vary fastest.");
+        assertEquals(27, DpFill.cell(7, 2, 9), "Expected one row of maxVolume + 1 cells per item count.");
+        assertEquals(49, DpFill.cell(9, 4, 9), "Expected the full capacity last.");
+    }
+
+    /**
+     * Test case to ensure every item gets its own layer, in order, each built from the layer before it.
+     */
+    @Test
+    public void testFillVisitsLayersInOrder() {
+        List<GoodsItem> items = List.of(new GoodsItem("item1", 1, 1, 1), new GoodsItem("item2", 1, 1, 1), new GoodsItem("item3", 1, 1, 1));
+        List<String> visited = new ArrayList<>();
+
+        int[][] dp = DpFill.fill(items, 2, 1, (previous, current, item) -> {
+            visited.add(item.getName());
+            current[0] = previous[0] + 1;
+        });
+
+        assertEquals(List.of("item1", "item2", "item3"), visited, "Expected one step per item in order.");
+        assertArrayEquals(new int[]{0, 1, 2, 3}, Arrays.stream(dp).mapToInt(layer -> layer[0]).toArray(),
+                          "Expected each layer to be filled from the previous one.");
+    }
+
+    /**
+     * Test case to ensure an empty item list leaves only the empty layer.
+     */
+    @Test
+    public void testFillWithoutItems() {
+        int[][] dp = DpFill.fill(List.of(), 5, 2, (previous, current, item) -> fail("Expected no step without items."));
+
+        assertEquals(1, dp.length, "Expected only the empty layer.");
+        assertTrue(Arrays.stream(dp[0]).allMatch(value -> value == 0), "Expected the empty layer to hold zeros.");
+    }
+}
@@ -0,0 +1,95 @@
+package com.truckpacker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Unit tests for the transition kernel.
+ */
+public class DpTransitionTest {
+
+    /**
+     * Test case to ensure a layer takes each count of the item wherever it fits and improves the previous layer.
+     */
+    @Test
+    public void testApplyFromEmptyLayer() {
+        int maxVolume = 6;
+        int maxItems = 3;
+        int[][] dp = DpFill.allocate(1, maxVolume, maxItems);
+
+        DpTransition.apply(new ScalarRowKernel(), dp[0], dp[1], new GoodsItem("item1", 2, 5, 2), maxVolume, maxItems);
+
+        for (int items = 0; items <= maxItems; items++) {
+            for (int volume = 0; volume <= maxVolume; volume++) {
+                int expected = 5 * Math.min(Math.min(items, 2), volume / 2);
+                assertEquals(expected, dp[1][DpFill.cell(volume, items, maxVolume)],
+                             "Expected " + expected + " at (" + volume + ", " + items + ").");
+            }
+        }
+    }
+
+    /**
+     * Test case to ensure the previous layer is kept where the item does not improve it.
+     */
+    @Test
+    public void testApplyKeepsBetterPreviousValues() {
+        int maxVolume = 4;
+        int maxItems = 2;
+        int[] previous = new int[(maxItems + 1) * (maxVolume + 1)];
+        int[] current = new int[previous.length];
+        previous[DpFill.cell(4, 1, maxVolume)] = 100;
+        previous[DpFill.cell(1, 1, maxVolume)] = 7;
+
+        DpTransition.apply(new ScalarRowKernel(), previous, current, new GoodsItem("item1", 3, 4, 1), maxVolume, maxItems);
+
+        assertEquals(100, current[DpFill.cell(4, 1, maxVolume)], "Expected the better previous value to be kept.");
+        assertEquals(11, current[DpFill.cell(4, 2, maxVolume)], "Expected the item added to the previous single item.");
+        assertEquals(4, current[DpFill.cell(3, 1, maxVolume)], "Expected the item on its own.");
+        assertEquals(0, current[DpFill.cell(2, 2, maxVolume)], "Expected no value where the item does not fit.");
+    }
+
+    /**
+     * Test case to ensure tiling gives the same layer as a plain recurrence across several volume tiles.
+     */
+    @Test
+    public void testApplyAcrossVolumeTiles() {
+        int maxVolume = 2 * DpTransition.VOLUME_BLOCK + 17;
+        int maxItems = 4;
+        GoodsItem item = new GoodsItem("item1", DpTransition.VOLUME_BLOCK - 3, 9, 3);
+        Random random = new Random(1);
+        int[] previous = new int[(maxItems + 1) * (maxVolume + 1)];
+        for (int i = 0; i < previous.length; i++) {
+            previous[i] = random.nextInt(20);
+        }
+        int[] current = new int[previous.length];
+
+        DpTransition.apply(new ScalarRowKernel(), previous, current, item, maxVolume, maxItems);
+
+        for (int items = 0; items <= maxItems; items++) {
+            for (int volume = 0; volume <= maxVolume; volume++) {
+                int expected = previous[DpFill.cell(volume, items, maxVolume)];
+                for (int count = 1; count <= Math.min(items, item.getMaxCount()) && count * item.getVolume() <= volume; count++) {
+                    expected = Math.max(expected, previous[DpFill.cell(volume - count * item.getVolume(), items - count, maxVolume)] + 9 * count);
+                }
+                assertEquals(expected, current[DpFill.cell(volume, items, maxVolume)],
+                             "Expected the plain recurrence at (" + volume + ", " + items + ").");
+            }
+        }
+    }
+
+    /**
+     * Test case to ensure an item too large for the knapsack leaves the layer unchanged without overflowing.
+     */
+    @Test
+    public void testApplyWithOversizedItem() {
+        int[] previous = {1, 2, 3, 4, 5, 6};
+        int[] current = new int[previous.length];
+
+        DpTransition.apply(new ScalarRowKernel(), previous, current, new GoodsItem("item1", Integer.MAX_VALUE, 9, 5), 2, 1);
+
+        assertArrayEquals(previous, current, "Expected the previous layer unchanged.");
+    }
+}
@@ -0,0 +1,124 @@
+package com.truckpacker;
+
+import java.util.*;
+
+/**
+ * @brief Seeded generator of large, realistic knapsack instances for the scaling suite.
+ * @details Store requests follow a Zipf distribution over item popularity, so a few items are requested
+ *          by most stores and a long tail by few. Item value is volume times a value density plus noise,
+ *          with the correlation controlling how much of the value is explained by volume.
+ */
+public class InstanceGenerator {
+    private final long seed;
+    private int numItems = 100;
+    private int numStores = 20;
+    private int itemsPerStore = 10;
+    private double zipfExponent = 1.1;
+    private double correlation = 0.8;
+    private int maxItemVolume = 50;
+    private int maxCount = 5;
+
+    /**
+     * @brief Constructor for the InstanceGenerator class.
+     * @param seed Seed making the generated instances reproducible.
+     */
+    public InstanceGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param numItems Number of distinct goods items.
+     * @return This generator.
+     */
+    public InstanceGenerator items(int numItems) {
+        this.numItems = numItems;
+        return this;
+    }
+
+    /**
+     * @param numStores Number of stores.
+     * @param itemsPerStore Number of requests drawn per store (duplicates collapse).
+     * @return This generator.
+     */
+    public InstanceGenerator stores(int numStores, int itemsPerStore) {
+        this.numStores = numStores;
+        this.itemsPerStore = itemsPerStore;
+        return this;
+    }
+
+    /**
+     * @param zipfExponent Skew of the store requests; 0 is uniform.
+     * @return This generator.
+     */
+    public InstanceGenerator zipfExponent(double zipfExponent) {
+        this.zipfExponent = zipfExponent;
+        return this;
+    }
+
+    /**
+     * @param correlation Volume/value correlation between 0 (independent) and 1 (value proportional to volume).
+     * @return This generator.
+     */
+    public InstanceGenerator correlation(double correlation) {
+        this.correlation = correlation;
+        return this;
+    }
+
+    /**
+     * @param maxItemVolume Largest volume of a single item.
+     * @return This generator.
+     */
+    public InstanceGenerator maxItemVolume(int maxItemVolume) {
+        this.maxItemVolume = maxItemVolume;
+        return this;
+    }
+
+    /**
+     * @param maxCount Largest maxCount of a single item; each item draws its own between 1 and this.
+     * @return This generator.
+     */
+    public InstanceGenerator maxCount(int maxCount) {
+        this.maxCount = maxCount;
+        return this;
+    }
+
+    /**
+     * @brief Generates an instance; the same seed and settings always give the same instance.
+     * @param maxVolume Maximum volume of the knapsack.
+     * @param maxItems Maximum number of items that can be packed.
+     * @return The generated instance.
+     */
+    public Instance generate(int maxVolume, int maxItems) {
+        Random random = new Random(seed);
+
+        List<GoodsItem> items = new ArrayList<>();
+        for (int i = 0; i < numItems; i++) {
+            int volume = 1 + random.nextInt(maxItemVolume);
+            double density = 1.0 + random.nextDouble();
+            double proportional = volume * density * 10;
+            double independent = random.nextDouble() * maxItemVolume * 20;
+            int value = (int) Math.round(correlation * proportional + (1 - correlation) * independent);
+            items.add(new GoodsItem("item" + i, volume, value, 1 + random.nextInt(maxCount)));
+        }
+
+        // Cumulative Zipf weights over item ranks; rank r has weight 1 / (r + 1)^s
+        double[] cumulative = new double[numItems];
+        double total = 0;
+        for (int rank = 0; rank < numItems; rank++) {
+            total += 1.0 / Math.pow(rank + 1, zipfExponent);
+            cumulative[rank] = total;
+        }
+
+        List<Store> stores = new ArrayList<>();
+        for (int s = 0; s < numStores; s++) {
+            Set<String> requested = new LinkedHashSet<>();
+            for (int r = 0; r < itemsPerStore; r++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                requested.add("item" + (rank < 0 ? -rank - 1 : rank));
+            }
+            stores.add(new Store("Store" + s, new ArrayList<>(requested)));
+        }
+
+        return new Instance("generated-" + seed, maxItems, maxVolume, items, stores);
+    }
+}
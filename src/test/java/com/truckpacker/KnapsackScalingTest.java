@@ -0,0 +1,299 @@
+package com.truckpacker;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Scaling regression suite for the solver engines on large generated instances.
+ * @details Tagged "scaling" and excluded from the default build; run with mvn -Pscaling test.
+ */
+@Tag("scaling")
+public class KnapsackScalingTest {
+
+    /**
+     * Allowed ratio of fastest run times when maxVolume doubles. The DP is linear in maxVolume, so the ratio is
+     * about 2; with interleaved fastest-of-9 timing it stayed within 1.93-2.13 over repeated runs. A quadratic
+     * regression would show as 4x.
+     */
+    private static final double DOUBLING_BUDGET = 2.5;
+
+    /**
+     * Allowed heap as a multiple of the DP table. Pool peaks are summed, so arrays promoted from the young
+     * to the old generation during the solve are counted twice; a second table copy still fails the check.
+     */
+    private static final double HEAP_BUDGET_FACTOR = 1.5;
+
+    /** Heap allowed on top of the DP table itself. */
+    private static final long HEAP_SLACK_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * @return The DP fill engines, whose run time and heap are budgeted.
+     */
+    static List<KnapsackSolver> engines() {
+        return List.of(new KnapsackSolver(), new VectorKnapsackSolver());
+    }
+
+    /**
+     * @brief Engines cross-checked for the optimal value. MeetInTheMiddleSolver is not listed: the generated
+     *        instances exceed its state limit and it would only hand them to the DP solver. It is checked on
+     *        few-SKU instances instead, where it runs its join.
+     * @param checkpointDirectory Directory for the checkpointing engine's files.
+     * @return The DP fill engines and the checkpointing engine.
+     */
+    static List<KnapsackSolver> crossCheckedEngines(Path checkpointDirectory) {
+        List<KnapsackSolver> engines = new ArrayList<>(engines());
+        engines.add(new CheckpointingKnapsackSolver(checkpointDirectory, 32, Long.MAX_VALUE));
+        return engines;
+    }
+
+    /**
+     * Test case to ensure doubling maxVolume at most roughly doubles the run time.
+     */
+    @Test
+    public void testDoublingMaxVolumeAtMostDoublesRunTime() {
+        InstanceGenerator generator = new InstanceGenerator(1).items(200).stores(40, 15).maxCount(4);
+        // Both sizes keep a DP layer well beyond L2, so the ratio measures the algorithm rather than a cache cliff
+        Instance small = generator.generate(4_000, 64);
+        Instance large = generator.generate(8_000, 64);
+
+        for (KnapsackSolver solver : engines()) {
+            long[] fastest = fastestSolveNanos(solver, small, large);
+
+            assertTrue(fastest[1] <= DOUBLING_BUDGET * fastest[0],
+                solver.getClass().getSimpleName() + " took " + fastest[1] + "ns at 2x maxVolume vs " + fastest[0] + "ns.");
+        }
+    }
+
+    /**
+     * Test case to ensure peak heap stays within a budget proportional to the DP table.
+     */
+    @Test
+    public void testPeakHeapWithinBudget() {
+        Instance instance = new InstanceGenerator(2).items(300).stores(50, 20).generate(5_000, 64);
+        int layers = KnapsackSolver.filterRequestedItems(instance.getItems(), instance.getStores()).size() + 1;
+        long tableBytes = (long) layers * (instance.getMaxVolume() + 1) * (instance.getMaxItems() + 1) * Integer.BYTES;
+
+        for (KnapsackSolver solver : engines()) {
+            System.gc();
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            long baseline = memory.getHeapMemoryUsage().getUsed();
+            resetHeapPeaks();
+
+            solver.solveKnapsack(instance.getItems(), instance.getMaxVolume(), instance.getMaxItems(), instance.getStores());
+
+            long peak = Math.max(peakHeapUsage(), memory.getHeapMemoryUsage().getUsed());
+            assertTrue(peak - baseline <= HEAP_BUDGET_FACTOR * tableBytes + HEAP_SLACK_BYTES,
+                solver.getClass().getSimpleName() + " peaked at " + (peak - baseline) + " bytes for a " + tableBytes + " byte table.");
+        }
+    }
+
+    /**
+     * Test case to ensure every engine finds the same optimal value and a feasible packing.
+     */
+    @Test
+    public void testEnginesAgreeOnOptimalValue(@TempDir Path checkpointDirectory) {
+        for (long seed = 10; seed < 15; seed++) {
+            Instance instance = new InstanceGenerator(seed).items(150).stores(30, 12).correlation(seed % 2 == 0 ? 0.9 : 0.2)
+                .generate(3_000, 40);
+            Set<Integer> values = new HashSet<>();
+
+            for (KnapsackSolver solver : crossCheckedEngines(checkpointDirectory)) {
+                values.add(solver.optimalValue(instance.getItems(), instance.getMaxVolume(), instance.getMaxItems(), instance.getStores()));
+                List<GoodsItem> packed = solver.solveKnapsack(instance.getItems(), instance.getMaxVolume(), instance.getMaxItems(),
+                                                              instance.getStores()).keySet().iterator().next();
+                assertTrue(packed.size() <= instance.getMaxItems(), "Expected at most maxItems packed for seed " + seed + ".");
+                assertTrue(packed.stream().mapToInt(GoodsItem::getVolume).sum() <= instance.getMaxVolume(),
+                           "Expected the packing to fit maxVolume for seed " + seed + ".");
+            }
+
+            assertEquals(1, values.size(), "Expected all engines to agree for seed " + seed + ", got " + values + ".");
+        }
+    }
+
+    /**
+     * Test case to ensure the optimal value matches exhaustive search on small generated instances.
+     */
+    @Test
+    public void testOptimalValueMatchesBruteForce(@TempDir Path checkpointDirectory) {
+        for (long seed = 20; seed < 40; seed++) {
+            Instance instance = new InstanceGenerator(seed).items(6).stores(3, 3).maxItemVolume(8).maxCount(3)
+                .generate(20, 6);
+            List<GoodsItem> requested = KnapsackSolver.filterRequestedItems(instance.getItems(), instance.getStores());
+            int expected = bruteForce(requested, 0, instance.getMaxVolume(), instance.getMaxItems());
+
+            List<KnapsackSolver> solvers = new ArrayList<>(crossCheckedEngines(checkpointDirectory));
+            solvers.add(new MeetInTheMiddleSolver());  // Six items are well within its state limit
+            for (KnapsackSolver solver : solvers) {
+                assertEquals(expected, solver.optimalValue(instance.getItems(), instance.getMaxVolume(), instance.getMaxItems(),
+                                                           instance.getStores()), "Expected the exhaustive optimum for seed " + seed + ".");
+            }
+        }
+    }
+
+    /**
+     * Test case to ensure the meet-in-the-middle join finds the DP optimum on few SKUs with a large volume.
+     */
+    @Test
+    public void testMeetInTheMiddleMatchesDpOnFewSkus() {
+        for (long seed = 50; seed < 53; seed++) {
+            Instance instance = new InstanceGenerator(seed).items(14).stores(4, 6).maxItemVolume(40_000).maxCount(3)
+                .generate(200_000, 12);
+            MeetInTheMiddleSolver meetInTheMiddle = new MeetInTheMiddleSolver();
+            List<GoodsItem> requested = KnapsackSolver.filterRequestedItems(instance.getItems(), instance.getStores());
+            assertNotNull(meetInTheMiddle.split(requested, instance.getMaxVolume(), instance.getMaxItems()),
+                          "Expected seed " + seed + " to stay within the state limit so the join runs.");
+
+            int expected = new KnapsackSolver().optimalValue(instance.getItems(), instance.getMaxVolume(), instance.getMaxItems(),
+                                                             instance.getStores());
+            assertEquals(expected, meetInTheMiddle.optimalValue(instance.getItems(), instance.getMaxVolume(), instance.getMaxItems(),
+                                                                instance.getStores()), "Expected the DP optimum for seed " + seed + ".");
+            List<GoodsItem> packed = meetInTheMiddle.solveKnapsack(instance.getItems(), instance.getMaxVolume(), instance.getMaxItems(),
+                                                                   instance.getStores()).keySet().iterator().next();
+            assertEquals(expected, packed.stream().mapToInt(GoodsItem::getValue).sum(), "Expected the packing to reach the optimum for seed " + seed + ".");
+            assertTrue(packed.size() <= instance.getMaxItems(), "Expected at most maxItems packed for seed " + seed + ".");
+            assertTrue(packed.stream().mapToInt(GoodsItem::getVolume).sum() <= instance.getMaxVolume(),
+                       "Expected the packing to fit maxVolume for seed " + seed + ".");
+        }
+    }
+
+    /**
+     * Test case to ensure the generator is reproducible and skews store requests towards popular items.
+     */
+    @Test
+    public void testGeneratorIsSeededAndSkewed() {
+        Instance first = new InstanceGenerator(5).items(1000).stores(200, 10).zipfExponent(1.2).generate(100, 10);
+        Instance second = new InstanceGenerator(5).items(1000).stores(200, 10).zipfExponent(1.2).generate(100, 10);
+
+        for (int i = 0; i < first.getItems().size(); i++) {
+            assertEquals(first.getItems().get(i).getValue(), second.getItems().get(i).getValue(), "Expected identical items for the same seed.");
+        }
+        long popular = first.getStores().stream().filter(store -> store.getRequestedItems().contains("item0")).count();
+        long tail = first.getStores().stream().filter(store -> store.getRequestedItems().contains("item999")).count();
+        assertTrue(popular > tail, "Expected the top-ranked item to be requested more than the tail.");
+    }
+
+    /**
+     * Test case to ensure a fast synthetic order feed is coalesced into far fewer solves than updates, and to
+     * report the streaming planner's throughput and update-to-plan latency.
+     */
+    @Test
+    public void testStreamingPlannerUnderSyntheticFeed() throws Exception {
+        Instance instance = new InstanceGenerator(6).items(200).stores(40, 15).maxCount(4).generate(2_000, 32);
+        int totalUpdates = 20_000;
+        StreamingPlanner planner = new StreamingPlanner(new KnapsackSolver(), instance.getMaxVolume(), instance.getMaxItems(),
+                                                        512, 10, 4);
+        PlanCollector plans = PlanCollector.subscribe(planner);
+
+        Random random = new Random(6);
+        Map<String, GoodsItem> items = new LinkedHashMap<>();
+        Map<String, Store> stores = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        try (SubmissionPublisher<OrderUpdate> feed = new SubmissionPublisher<>()) {
+            feed.subscribe(planner);
+            for (GoodsItem item : instance.getItems()) {
+                items.put(item.getName(), item);
+                feed.submit(OrderUpdate.item(item));
+            }
+            for (Store store : instance.getStores()) {
+                stores.put(store.getName(), store);
+                feed.submit(OrderUpdate.store(store));
+            }
+            for (int i = instance.getItems().size() + instance.getStores().size(); i < totalUpdates; i++) {
+                if (random.nextBoolean()) {
+                    // Stock change: same item with a new maxCount
+                    GoodsItem item = instance.getItems().get(random.nextInt(instance.getItems().size()));
+                    GoodsItem restocked = new GoodsItem(item.getName(), item.getVolume(), item.getValue(), random.nextInt(5));
+                    items.put(restocked.getName(), restocked);
+                    feed.submit(OrderUpdate.item(restocked));
+                } else {
+                    // Order change: a store swaps one requested item for another
+                    Store store = instance.getStores().get(random.nextInt(instance.getStores().size()));
+                    List<String> requested = new ArrayList<>(stores.get(store.getName()).getRequestedItems());
+                    requested.set(random.nextInt(requested.size()), "item" + random.nextInt(instance.getItems().size()));
+                    Store changed = new Store(store.getName(), requested);
+                    stores.put(changed.getName(), changed);
+                    feed.submit(OrderUpdate.store(changed));
+                }
+            }
+        }
+        List<PackingPlan> received = plans.allPlans().get(5, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] latencies = received.stream().mapToLong(PackingPlan::getLatencyNanos).sorted().toArray();
+        System.out.printf("Streaming feed: %d updates in %.2f s (%.0f updates/s), %d solves, latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                          totalUpdates, seconds, totalUpdates / seconds, received.size(), latencies[latencies.length / 2] / 1e6,
+                          latencies[(int) (latencies.length * 0.99)] / 1e6, latencies[latencies.length - 1] / 1e6);
+
+        assertEquals(totalUpdates, received.stream().mapToInt(PackingPlan::getUpdates).sum(), "Expected every update in exactly one plan.");
+        assertTrue(received.size() * 10 <= totalUpdates, "Expected at least 10 updates per solve, got " + received.size() + " solves.");
+        int expected = new KnapsackSolver().solveKnapsack(new ArrayList<>(items.values()), instance.getMaxVolume(), instance.getMaxItems(),
+                                                          new ArrayList<>(stores.values()))
+            .keySet().iterator().next().stream().mapToInt(GoodsItem::getValue).sum();
+        List<GoodsItem> packed = received.get(received.size() - 1).getPackedItems();
+        assertEquals(expected, packed.stream().mapToInt(GoodsItem::getValue).sum(), "Expected the last plan to reflect the final orders.");
+    }
+
+    /**
+     * @brief Times both instances in alternation so JIT warm-up and host noise affect them alike.
+     * @return Fastest run time of each instance, in nanoseconds.
+     */
+    private static long[] fastestSolveNanos(KnapsackSolver solver, Instance... instances) {
+        long[] fastest = new long[instances.length];
+        Arrays.fill(fastest, Long.MAX_VALUE);
+        for (int run = -3; run < 9; run++) {
+            for (int i = 0; i < instances.length; i++) {
+                System.gc();  // Start every sample from a clean heap so one run's garbage is not charged to the next
+                long start = System.nanoTime();
+                solver.solveKnapsack(instances[i].getItems(), instances[i].getMaxVolume(), instances[i].getMaxItems(),
+                                     instances[i].getStores());
+                if (run >= 0) {
+                    // The fastest run is the least disturbed by page faults and noisy neighbours on shared CI hosts
+                    fastest[i] = Math.min(fastest[i], System.nanoTime() - start);
+                }
+            }
+        }
+        return fastest;
+    }
+
+    private static void resetHeapPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeapUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static int bruteForce(List<GoodsItem> items, int index, int volumeLeft, int itemsLeft) {
+        if (index == items.size()) {
+            return 0;
+        }
+        GoodsItem item = items.get(index);
+        int best = bruteForce(items, index + 1, volumeLeft, itemsLeft);
+        for (int count = 1; count <= item.getMaxCount() && count <= itemsLeft && item.getVolume() * count <= volumeLeft; count++) {
+            best = Math.max(best, item.getValue() * count
+                + bruteForce(items, index + 1, volumeLeft - item.getVolume() * count, itemsLeft - count));
+        }
+        return best;
+    }
+}
@@ -1,10 +1,19 @@
 package com.truckpacker;
 
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -605,4 +614,707 @@ public class KnapsackTest {
 
         assertTrue(true);
     }
+
+    /**
+     * Test case to ensure the scalar row kernel applies the shifted max only where it improves the target.
+     */
+    @Test
+    public void testScalarRowKernelMaxShifted() {
+        int[] source = {1, 5, 2, 7};
+        int[] target = {0, 4, 9, 3, 8};
+
+        new ScalarRowKernel().maxShifted(source, 1, target, 2, 3, 3);
+
+        assertArrayEquals(new int[]{0, 4, 9, 5, 10}, target, "Expected max(target, source + 3) over the shifted range.");
+    }
+
+    /**
+     * Test case to ensure the vector solver packs exactly what the scalar solver packs.
+     */
+    @Test
+    public void testVectorSolverMatchesScalarSolver() {
+        List<GoodsItem> items = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 12; i++) {
+            items.add(new GoodsItem("item" + i, random.nextInt(9), random.nextInt(40) - 5, 1 + random.nextInt(4)));
+        }
+        List<Store> stores = List.of(
+            new Store("Store1", List.of("item0", "item2", "item4", "item6", "item8", "item10")),
+            new Store("Store2", List.of("item1", "item3", "item5", "item7", "item9", "item11"))
+        );
+
+        for (int maxVolume : new int[]{0, 7, 40}) {
+            for (int maxItems : new int[]{0, 3, 37}) {
+                var expected = new KnapsackSolver().solveKnapsack(items, maxVolume, maxItems, stores);
+                var actual = new VectorKnapsackSolver().solveKnapsack(items, maxVolume, maxItems, stores);
+                assertEquals(expected, actual, "Expected identical packing for volume " + maxVolume + " and items " + maxItems + ".");
+            }
+        }
+    }
+
+    /**
+     * Test case to ensure the vector solver reports a kernel whether or not the Vector API is available.
+     */
+    @Test
+    public void testVectorSolverFallsBackWithoutVectorModule() {
+        boolean moduleAvailable = ModuleLayer.boot().findModule(VectorKnapsackSolver.VECTOR_MODULE).isPresent();
+        // Looked up as a resource so the check does not itself need the module to load the class
+        boolean kernelCompiled = getClass().getClassLoader()
+            .getResource(VectorKnapsackSolver.VECTOR_KERNEL_CLASS.replace('.', '/') + ".class") != null;
+        VectorKnapsackSolver solver = new VectorKnapsackSolver();
+
+        if (!moduleAvailable) {
+            assertFalse(solver.isVectorized(), "Expected scalar fallback when jdk.incubator.vector is absent.");
+        } else if (kernelCompiled) {
+            assertTrue(solver.isVectorized(), "Expected the vector kernel when the module and the class are available.");
+        }
+        assertNotNull(VectorKnapsackSolver.loadKernel(), "Expected a kernel to always be available.");
+    }
+
+    /**
+     * Test case to ensure the JSON and YAML versions of test1 in input/ parse to the same instance.
+     */
+    @Test
+    public void testInstanceLoaderJsonAndYaml() throws IOException {
+        Instance json = InstanceLoader.load(Paths.get("input", "test1_goods.json"));
+        Instance yaml = InstanceLoader.load(Paths.get("input", "test1_goods.yaml"));
+
+        assertEquals("test1_json", json.getName(), "Expected the name to include the format.");
+        assertEquals(5, json.getMaxItems(), "Expected maxItems from the goods file.");
+        assertEquals(23, json.getMaxVolume(), "Expected maxVolume from the maxvolume file.");
+        assertEquals(5, json.getItems().size(), "Expected all goods to be read.");
+        assertEquals(5, json.getItems().get(0).getMaxCount(), "Expected maxCount to default to maxItems.");
+        assertEquals(2, json.getStores().size(), "Expected both stores to be read.");
+        assertEquals(List.of("item1", "item3"), json.getStores().get(0).getRequestedItems(), "Expected the requested items of Store1.");
+        assertEquals(json.getMaxVolume(), yaml.getMaxVolume(), "Expected YAML and JSON to agree on maxVolume.");
+        assertEquals(json.getItems().get(2).getValue(), yaml.getItems().get(2).getValue(), "Expected YAML and JSON to agree on goods.");
+    }
+
+    /**
+     * Test case to ensure only complete instance triples are discovered.
+     */
+    @Test
+    public void testInstanceLoaderDiscover(@TempDir Path directory) throws IOException {
+        writeInstance(directory, "test1", "{\"maxItems\": 2, \"goods\": [{\"name\": \"item1\", \"volume\": 1, \"value\": 4}]}");
+        Files.writeString(directory.resolve("test2_goods.json"), "{}");
+
+        List<Path> goodsFiles = InstanceLoader.discover(directory);
+
+        assertEquals(List.of(directory.resolve("test1_goods.json")), goodsFiles, "Expected only the complete triple to be found.");
+    }
+
+    /**
+     * Test case to ensure the batch runner writes per-instance output and skips malformed instances.
+     */
+    @Test
+    public void testBatchRunnerSkipsMalformedInstances(@TempDir Path directory) throws Exception {
+        Path input = Files.createDirectory(directory.resolve("input"));
+        Path output = directory.resolve("output");
+        writeInstance(input, "test1", "{\"maxItems\": 2, \"goods\": [{\"name\": \"item1\", \"volume\": 1, \"value\": 4}]}");
+        writeInstance(input, "test2", "{\"maxItems\": \"many\"}");
+
+        BatchRunner runner = new BatchRunner(new KnapsackSolver(), 2, 2, BatchRunner.FailurePolicy.SKIP);
+        int solved = runner.run(input, output);
+
+        assertEquals(1, solved, "Expected only the well-formed instance to be solved.");
+        String result = Files.readString(output.resolve("test1_json_output.txt"));
+        assertTrue(result.contains("name = 'item1', volume = 1, value = 4, maxCount = 2"), "Expected the packed item to be written.");
+        assertTrue(result.contains("Store1"), "Expected Store1 to be visited.");
+        List<String> summary = Files.readAllLines(output.resolve(BatchRunner.SUMMARY_FILE));
+        assertEquals(3, summary.size(), "Expected a header and one row per instance.");
+        assertTrue(summary.stream().anyMatch(row -> row.startsWith("test1_json,OK,2,8,")), "Expected test1 to be solved.");
+        assertTrue(summary.stream().anyMatch(row -> row.startsWith("test2_json,FAILED,")), "Expected test2 to be reported as failed.");
+    }
+
+    /**
+     * Test case to ensure the fail-fast policy stops the batch with an error.
+     */
+    @Test
+    public void testBatchRunnerFailFast(@TempDir Path directory) throws Exception {
+        writeInstance(directory, "test1", "not json at all [");
+
+        BatchRunner runner = new BatchRunner(new KnapsackSolver(), 1, 1, BatchRunner.FailurePolicy.FAIL_FAST);
+
+        assertThrows(IOException.class, () -> runner.run(directory, directory.resolve("output")), "Expected the malformed instance to stop the batch.");
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(new KnapsackSolver(), 0, 1, BatchRunner.FailurePolicy.SKIP), "Expected zero workers to be rejected.");
+    }
+
+    /**
+     * Test case to ensure a summary that cannot be written fails the batch with an IOException.
+     */
+    @Test
+    public void testBatchRunnerSummaryWriteFailure(@TempDir Path directory) throws Exception {
+        Path full = Paths.get("/dev/full");
+        Assumptions.assumeTrue(Files.isWritable(full), "Needs /dev/full to simulate a full disk.");
+        Path input = Files.createDirectory(directory.resolve("input"));
+        Path output = Files.createDirectory(directory.resolve("output"));
+        writeInstance(input, "test1", "{\"maxItems\": 2, \"goods\": [{\"name\": \"item1\", \"volume\": 1, \"value\": 4}]}");
+        Files.createSymbolicLink(output.resolve(BatchRunner.SUMMARY_FILE), full);
+
+        BatchRunner runner = new BatchRunner(new KnapsackSolver(), 1, 1, BatchRunner.FailurePolicy.SKIP);
+
+        assertThrows(IOException.class, () -> runner.run(input, output), "Expected the failed summary write as an IOException.");
+    }
+
+    /**
+     * Test case to ensure Main runs batch mode over the input directory.
+     */
+    @Test
+    public void testMainBatchMode(@TempDir Path directory) throws Exception {
+        Main.main(new String[]{"--batch", "input", directory.toString(), "--workers", "2", "--io-workers", "1"});
+
+        assertTrue(Files.exists(directory.resolve("test1_json_output.txt")), "Expected output for test1 in JSON.");
+        assertTrue(Files.exists(directory.resolve("test1_yaml_output.txt")), "Expected output for test1 in YAML.");
+        assertTrue(Files.exists(directory.resolve("test_input_yaml_output.txt")), "Expected output for test_input in YAML.");
+        for (String[] badArgs : List.of(new String[]{"--batch", "input"},
+                                        new String[]{"--batch", "input", directory.toString(), "--verbose"},
+                                        new String[]{"--batch", "input", directory.toString(), "--workers"},
+                                        new String[]{"--batch", "input", directory.toString(), "--workers", "x"},
+                                        new String[]{"--batch", "input", directory.toString(), "--io-workers", "0"})) {
+            assertEquals(2, Main.runBatch(badArgs), "Expected a usage error for " + String.join(" ", badArgs) + ".");
+        }
+        assertEquals(1, Main.runBatch(new String[]{"--batch", directory.resolve("missing").toString(), directory.toString()}),
+                     "Expected a non-zero status when the input directory cannot be read.");
+    }
+
+    /**
+     * Test case to ensure the optimal value is reported without reconstructing the packing.
+     */
+    @Test
+    public void testOptimalValue() {
+        List<GoodsItem> items = List.of(
+            new GoodsItem("item1", 10, 20, 2),
+            new GoodsItem("item2", 5, 15, 3),
+            new GoodsItem("item3", 8, 25, 1)
+        );
+        List<Store> stores = List.of(
+            new Store("Store1", List.of("item1", "item2")),
+            new Store("Store2", List.of("item3"))
+        );
+
+        KnapsackSolver solver = new KnapsackSolver();
+
+        assertEquals(95, solver.optimalValue(items, 50, 5, stores), "Expected item3, two of item2 and two of item1.");
+        assertEquals(0, solver.optimalValue(items, 50, 5, List.of()), "Expected zero value when no store requests items.");
+    }
+
+    /**
+     * Test case to ensure the meet-in-the-middle solver finds the same optimum as the DP solver.
+     */
+    @Test
+    public void testMeetInTheMiddleMatchesDynamicProgramming() {
+        Random random = new Random(11);
+        for (int round = 0; round < 30; round++) {
+            List<GoodsItem> items = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(8); i++) {
+                items.add(new GoodsItem("item" + i, random.nextInt(10), random.nextInt(30) - 3, random.nextInt(4)));
+                names.add("item" + i);
+            }
+            List<Store> stores = List.of(new Store("Store1", names));
+            int maxVolume = random.nextInt(40);
+            int maxItems = random.nextInt(8);
+
+            int expected = new KnapsackSolver().optimalValue(items, maxVolume, maxItems, stores);
+            MeetInTheMiddleSolver solver = new MeetInTheMiddleSolver();
+            List<GoodsItem> packed = solver.solveKnapsack(items, maxVolume, maxItems, stores).keySet().iterator().next();
+
+            assertEquals(expected, solver.optimalValue(items, maxVolume, maxItems, stores), "Expected the DP optimum in round " + round + ".");
+            assertEquals(expected, packed.stream().mapToInt(GoodsItem::getValue).sum(), "Expected the packing to reach the optimum in round " + round + ".");
+            assertTrue(packed.size() <= maxItems, "Expected at most maxItems packed in round " + round + ".");
+            assertTrue(packed.stream().mapToInt(GoodsItem::getVolume).sum() <= maxVolume, "Expected the packing to fit in round " + round + ".");
+        }
+    }
+
+    /**
+     * Test case to ensure the meet-in-the-middle solver handles volumes far beyond what the DP table can hold.
+     */
+    @Test
+    public void testMeetInTheMiddleHugeVolume() {
+        List<GoodsItem> items = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            items.add(new GoodsItem("item" + i, 10_000_000 + i * 1_000_003, 100 + 7 * i, 2));
+            names.add("item" + i);
+        }
+        List<Store> stores = List.of(new Store("Store1", names.subList(0, 12)), new Store("Store2", names.subList(12, 24)));
+
+        var result = new MeetInTheMiddleSolver().solveKnapsack(items, 1_500_000_000, 40, stores);
+
+        List<GoodsItem> packed = result.keySet().iterator().next();
+        assertFalse(packed.isEmpty(), "Expected items to be packed.");
+        assertTrue(packed.stream().mapToLong(GoodsItem::getVolume).sum() <= 1_500_000_000L, "Expected the packing to fit the volume.");
+        for (GoodsItem item : items) {
+            assertTrue(packed.stream().filter(p -> p == item).count() <= 2, "Expected maxCount to be respected for " + item.getName() + ".");
+        }
+        assertTrue(result.values().iterator().next().contains("Store2"), "Expected Store2 for its more valuable items.");
+    }
+
+    /**
+     * Test case to ensure the meet-in-the-middle solver falls back when a half has too many combinations.
+     */
+    @Test
+    public void testMeetInTheMiddleFallsBackOverStateLimit() {
+        List<GoodsItem> items = List.of(new GoodsItem("item1", 2, 3, 5), new GoodsItem("item2", 3, 4, 5), new GoodsItem("item3", 4, 6, 5));
+        List<Store> stores = List.of(new Store("Store1", List.of("item1", "item2", "item3")));
+        MeetInTheMiddleSolver solver = new MeetInTheMiddleSolver(new KnapsackSolver(), 4);
+
+        assertNull(solver.split(items, 20, 10), "Expected the state limit to be exceeded.");
+        assertEquals(new KnapsackSolver().solveKnapsack(items, 20, 10, stores), solver.solveKnapsack(items, 20, 10, stores), "Expected the fallback engine's packing.");
+        assertEquals(new KnapsackSolver().optimalValue(items, 20, 10, stores), solver.optimalValue(items, 20, 10, stores), "Expected the fallback engine's value.");
+        assertThrows(IllegalArgumentException.class, () -> new MeetInTheMiddleSolver(new KnapsackSolver(), 0), "Expected a positive state limit.");
+    }
+
+    /**
+     * Test case to ensure stored solutions survive closing and reopening the store.
+     */
+    @Test
+    public void testSolutionStoreRoundTrip(@TempDir Path directory) throws IOException {
+        byte[] key = SolutionStore.fingerprint("engine", List.of(new GoodsItem("item1", 1, 2, 3)), List.of(), 10, 5);
+        try (SolutionStore store = new SolutionStore(directory, 1 << 20)) {
+            assertNull(store.get(key), "Expected an empty store to miss.");
+            store.put(key, new SolutionStore.Solution(new int[]{0, 0}, Set.of("Store1")));
+            store.put(key, new SolutionStore.Solution(new int[]{}, Set.of()));
+            assertEquals(1, store.size(), "Expected a repeated key to be stored once.");
+        }
+
+        try (SolutionStore store = new SolutionStore(directory, 1 << 20)) {
+            SolutionStore.Solution solution = store.get(key);
+            assertNotNull(solution, "Expected the solution to be found after reopening.");
+            assertArrayEquals(new int[]{0, 0}, solution.getItemIndices(), "Expected the packed item indices.");
+            assertEquals(Set.of("Store1"), solution.getStoresToVisit(), "Expected the stores to visit.");
+        }
+    }
+
+    /**
+     * Test case to ensure a torn record at the end of the data file is cut off and earlier records are kept.
+     */
+    @Test
+    public void testSolutionStoreIgnoresTruncatedTail(@TempDir Path directory) throws IOException {
+        byte[] first = SolutionStore.fingerprint("engine", List.of(), List.of(), 1, 1);
+        byte[] second = SolutionStore.fingerprint("engine", List.of(), List.of(), 2, 1);
+        long validLength;
+        try (SolutionStore store = new SolutionStore(directory, 1 << 20)) {
+            store.put(first, new SolutionStore.Solution(new int[]{1}, Set.of("Store1")));
+            validLength = store.dataLength();
+            store.put(second, new SolutionStore.Solution(new int[]{2}, Set.of("Store2")));
+        }
+        Path dataFile = directory.resolve(SolutionStore.DATA_FILE);
+        byte[] bytes = Files.readAllBytes(dataFile);
+        Files.write(dataFile, Arrays.copyOf(bytes, bytes.length - 3));
+        Files.delete(directory.resolve(SolutionStore.INDEX_FILE));
+
+        try (SolutionStore store = new SolutionStore(directory, 1 << 20)) {
+            assertNotNull(store.get(first), "Expected the intact record to survive.");
+            assertNull(store.get(second), "Expected the torn record to be dropped.");
+            assertEquals(validLength, Files.size(dataFile), "Expected the torn tail to be truncated.");
+        }
+    }
+
+    /**
+     * Test case to ensure the store compacts to its newest records when it exceeds its size cap.
+     */
+    @Test
+    public void testSolutionStoreCompactsOverSizeCap(@TempDir Path directory) throws IOException {
+        try (SolutionStore store = new SolutionStore(directory, 2_000)) {
+            for (int maxVolume = 0; maxVolume < 100; maxVolume++) {
+                store.put(SolutionStore.fingerprint("engine", List.of(), List.of(), maxVolume, 1),
+                          new SolutionStore.Solution(new int[]{maxVolume}, Set.of()));
+            }
+
+            assertTrue(store.dataLength() <= 2_000, "Expected the data file to stay under its cap.");
+            assertTrue(store.size() < 100, "Expected old solutions to be dropped.");
+            assertNotNull(store.get(SolutionStore.fingerprint("engine", List.of(), List.of(), 99, 1)), "Expected the newest solution to be kept.");
+            assertNull(store.get(SolutionStore.fingerprint("engine", List.of(), List.of(), 0, 1)), "Expected the oldest solution to be dropped.");
+        }
+    }
+
+    /**
+     * Test case to ensure a corrupt record is skipped without cutting off the valid records after it.
+     */
+    @Test
+    public void testSolutionStoreSkipsCorruptRecordBeforeValidOnes(@TempDir Path directory) throws IOException {
+        byte[][] keys = new byte[3][];
+        long corruptOffset;
+        try (SolutionStore store = new SolutionStore(directory, 1 << 20)) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = SolutionStore.fingerprint("engine", List.of(), List.of(), i, 1);
+            }
+            store.put(keys[0], new SolutionStore.Solution(new int[]{0}, Set.of()));
+            corruptOffset = store.dataLength() + 50;
+            store.put(keys[1], new SolutionStore.Solution(new int[]{1}, Set.of()));
+            store.put(keys[2], new SolutionStore.Solution(new int[]{2}, Set.of()));
+        }
+        Path dataFile = directory.resolve(SolutionStore.DATA_FILE);
+        byte[] bytes = Files.readAllBytes(dataFile);
+        bytes[(int) corruptOffset] ^= 0x5A;
+        Files.write(dataFile, bytes);
+        Files.delete(directory.resolve(SolutionStore.INDEX_FILE));
+
+        try (SolutionStore store = new SolutionStore(directory, 1 << 20)) {
+            assertNotNull(store.get(keys[0]), "Expected the record before the corruption to survive.");
+            assertNull(store.get(keys[1]), "Expected the corrupt record to be dropped.");
+            assertNotNull(store.get(keys[2]), "Expected the record after the corruption to survive.");
+            assertEquals(bytes.length, Files.size(dataFile), "Expected no valid record to be truncated.");
+        }
+    }
+
+    /**
+     * Test case to ensure two stores sharing a directory see each other's appends, index growth and compaction.
+     */
+    @Test
+    public void testSolutionStoreSharedBetweenInstances(@TempDir Path directory) throws IOException {
+        try (SolutionStore first = new SolutionStore(directory, 40_000);
+             SolutionStore second = new SolutionStore(directory, 40_000)) {
+            // Enough records to grow the index past its initial size
+            for (int maxVolume = 0; maxVolume < 600; maxVolume++) {
+                first.put(SolutionStore.fingerprint("engine", List.of(), List.of(), maxVolume, 1),
+                          new SolutionStore.Solution(new int[]{maxVolume}, Set.of()));
+            }
+            assertEquals(5, second.get(SolutionStore.fingerprint("engine", List.of(), List.of(), 5, 1)).getItemIndices()[0],
+                         "Expected the second store to see records the first appended.");
+
+            // Compact in the first store, then append past the length the second store last saw
+            int next = 600;
+            long secondLength = second.dataLength();
+            while (first.dataLength() <= secondLength) {
+                first.put(SolutionStore.fingerprint("engine", List.of(), List.of(), next, 1),
+                          new SolutionStore.Solution(new int[]{next}, Set.of()));
+                next++;
+            }
+            assertTrue(first.dataLength() < 40_000, "Expected the first store to have compacted.");
+
+            byte[] secondKey = SolutionStore.fingerprint("engine", List.of(), List.of(), -1, 1);
+            second.put(secondKey, new SolutionStore.Solution(new int[]{-1}, Set.of()));
+            for (int maxVolume = 600; maxVolume < next; maxVolume++) {
+                byte[] key = SolutionStore.fingerprint("engine", List.of(), List.of(), maxVolume, 1);
+                assertNotNull(first.get(key), "Expected the first store to keep its records.");
+                assertNotNull(second.get(key), "Expected the second store to see the first store's records.");
+            }
+            assertNotNull(first.get(secondKey), "Expected the first store to see the second store's record.");
+        }
+
+        try (SolutionStore reopened = new SolutionStore(directory, 40_000)) {
+            assertNotNull(reopened.get(SolutionStore.fingerprint("engine", List.of(), List.of(), -1, 1)),
+                          "Expected the shared records to survive a reopen.");
+        }
+    }
+
+    /**
+     * Test case to ensure the fingerprint ignores store order but not the problem itself.
+     */
+    @Test
+    public void testSolutionStoreFingerprint() {
+        List<GoodsItem> items = List.of(new GoodsItem("item1", 2, 3, 1), new GoodsItem("item2", 3, 4, 1));
+        Store store1 = new Store("Store1", List.of("item1", "item2"));
+        Store store2 = new Store("Store2", List.of("item2"));
+        byte[] key = SolutionStore.fingerprint("engine", items, List.of(store1, store2), 10, 5);
+
+        assertArrayEquals(key, SolutionStore.fingerprint("engine", items, List.of(store2, new Store("Store1", List.of("item2", "item1"))), 10, 5), "Expected store and request order not to matter.");
+        assertFalse(Arrays.equals(key, SolutionStore.fingerprint("engine", items, List.of(store1, store2), 11, 5)), "Expected maxVolume to matter.");
+        assertFalse(Arrays.equals(key, SolutionStore.fingerprint("engine", List.of(items.get(1), items.get(0)), List.of(store1, store2), 10, 5)), "Expected item order to matter.");
+        assertFalse(Arrays.equals(key, SolutionStore.fingerprint("other", items, List.of(store1, store2), 10, 5)), "Expected the engine to matter.");
+    }
+
+    /**
+     * Test case to ensure the persistent solver returns stored packings instead of solving again.
+     */
+    @Test
+    public void testPersistentSolverReusesStoredSolutions(@TempDir Path directory) throws IOException {
+        List<GoodsItem> items = List.of(
+            new GoodsItem("item1", 10, 20, 2),
+            new GoodsItem("item2", 5, 15, 3),
+            new GoodsItem("item3", 8, 25, 1)
+        );
+        List<Store> stores = List.of(
+            new Store("Store1", List.of("item1", "item2")),
+            new Store("Store2", List.of("item3"))
+        );
+        int[] solves = new int[1];
+        KnapsackSolver counting = new KnapsackSolver() {
+            @Override
+            public Map<List<GoodsItem>, Set<String>> solveKnapsack(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+                solves[0]++;
+                return super.solveKnapsack(items, maxVolume, maxItems, stores);
+            }
+        };
+        var expected = new KnapsackSolver().solveKnapsack(items, 50, 5, stores);
+
+        try (SolutionStore store = new SolutionStore(directory, 1 << 20)) {
+            assertEquals(expected, new PersistentKnapsackSolver(counting, store).solveKnapsack(items, 50, 5, stores), "Expected the delegate's packing.");
+        }
+        try (SolutionStore store = new SolutionStore(directory, 1 << 20)) {
+            PersistentKnapsackSolver solver = new PersistentKnapsackSolver(counting, store);
+            assertEquals(expected, solver.solveKnapsack(items, 50, 5, stores), "Expected the stored packing after a restart.");
+            assertEquals(95, solver.optimalValue(items, 50, 5, stores), "Expected the delegate's optimal value.");
+        }
+        assertEquals(1, solves[0], "Expected the problem to be solved only once.");
+    }
+
+    /**
+     * Test case to ensure batch mode fills a solution store that a second run reuses.
+     */
+    @Test
+    public void testMainBatchModeWithSolutionStore(@TempDir Path directory) throws Exception {
+        Path storeDirectory = directory.resolve("store");
+        Main.main(new String[]{"--batch", "input", directory.resolve("run1").toString(), "--solution-store", storeDirectory.toString()});
+        Main.main(new String[]{"--batch", "input", directory.resolve("run2").toString(), "--solution-store", storeDirectory.toString()});
+
+        try (SolutionStore store = new SolutionStore(storeDirectory, Main.SOLUTION_STORE_MAX_BYTES)) {
+            assertEquals(2, store.size(), "Expected one solution per distinct problem in input/.");
+        }
+        assertEquals(Files.readString(directory.resolve("run1").resolve("test1_json_output.txt")),
+                     Files.readString(directory.resolve("run2").resolve("test1_json_output.txt")), "Expected the stored packing to be reused.");
+    }
+
+    /**
+     * Test case to ensure a solve interrupted after a checkpoint resumes and returns the uninterrupted result.
+     */
+    @Test
+    public void testCheckpointResumeMatchesUninterruptedSolve(@TempDir Path directory) {
+        List<GoodsItem> items = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 10; i++) {
+            items.add(new GoodsItem("item" + i, 1 + random.nextInt(6), random.nextInt(30), 1 + random.nextInt(3)));
+        }
+        List<Store> stores = List.of(new Store("Store1", List.of("item0", "item1", "item2", "item3", "item4")),
+                                     new Store("Store2", List.of("item5", "item6", "item7", "item8", "item9")));
+        CheckpointingKnapsackSolver crashing = new CheckpointingKnapsackSolver(directory, 3, Long.MAX_VALUE) {
+            private int layers;
+
+            @Override
+            void fillLayer(int[] previous, int[] current, GoodsItem currentItem, int maxVolume, int maxItems) {
+                if (++layers == 8) {
+                    throw new IllegalStateException("Simulated restart");
+                }
+                super.fillLayer(previous, current, currentItem, maxVolume, maxItems);
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> crashing.solveKnapsack(items, 25, 6, stores), "Expected the simulated restart.");
+        Path checkpoint = crashing.checkpointFile(items, 25, 6, stores);
+        assertTrue(Files.exists(checkpoint), "Expected a checkpoint to be left behind.");
+
+        CheckpointingKnapsackSolver resumed = new CheckpointingKnapsackSolver(directory, 3, Long.MAX_VALUE);
+        CheckpointingKnapsackSolver.Result result = resumed.solveResumable(items, 25, 6, stores);
+
+        assertEquals(6, result.getResumedLayers(), "Expected to resume after the last checkpointed layer.");
+        assertEquals(new KnapsackSolver().solveKnapsack(items, 25, 6, stores), result.getPacking(), "Expected the uninterrupted result.");
+        assertFalse(Files.exists(checkpoint), "Expected the checkpoint to be deleted after a complete solve.");
+    }
+
+    /**
+     * Test case to ensure a torn last layer and checkpoints of other problems are not resumed.
+     */
+    @Test
+    public void testCheckpointIgnoresTornLayerAndOtherProblems(@TempDir Path directory) throws IOException {
+        List<GoodsItem> items = List.of(new GoodsItem("item1", 2, 3, 2), new GoodsItem("item2", 3, 4, 2), new GoodsItem("item3", 1, 1, 4));
+        List<Store> stores = List.of(new Store("Store1", List.of("item1", "item2", "item3")));
+        CheckpointingKnapsackSolver crashing = new CheckpointingKnapsackSolver(directory, 1, 0) {
+            @Override
+            void fillLayer(int[] previous, int[] current, GoodsItem currentItem, int maxVolume, int maxItems) {
+                if (currentItem.getName().equals("item3")) {
+                    throw new IllegalStateException("Simulated restart");
+                }
+                super.fillLayer(previous, current, currentItem, maxVolume, maxItems);
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> crashing.solveKnapsack(items, 10, 5, stores), "Expected the simulated restart.");
+        Path checkpoint = crashing.checkpointFile(items, 10, 5, stores);
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length - 5));
+
+        CheckpointingKnapsackSolver resumed = new CheckpointingKnapsackSolver(directory, 1, 0);
+        CheckpointingKnapsackSolver.Result result = resumed.solveResumable(items, 10, 5, stores);
+        assertEquals(new KnapsackSolver().solveKnapsack(items, 10, 5, stores), result.getPacking(), "Expected the uninterrupted result.");
+        assertEquals(1, result.getResumedLayers(), "Expected only the intact first layer to be resumed.");
+
+        // A checkpoint copied from another problem's file has the wrong fingerprint in its header
+        assertThrows(IllegalStateException.class, () -> crashing.solveKnapsack(items, 10, 5, stores), "Expected the simulated restart.");
+        Files.move(checkpoint, crashing.checkpointFile(items, 11, 5, stores));
+        assertEquals(0, resumed.solveResumable(items, 11, 5, stores).getResumedLayers(), "Expected a checkpoint of another problem to be discarded.");
+        assertThrows(IllegalArgumentException.class, () -> new CheckpointingKnapsackSolver(directory, 0, 0), "Expected a positive layer interval.");
+        assertThrows(IllegalArgumentException.class, () -> new CheckpointingKnapsackSolver(directory, 1, -1), "Expected a non-negative time interval.");
+        assertDoesNotThrow(() -> new CheckpointingKnapsackSolver(directory, 1, 0), "Expected a zero time interval to checkpoint every layer.");
+    }
+
+    /**
+     * Test case to ensure one checkpointing solver shared across threads solves different and identical problems correctly.
+     */
+    @Test
+    public void testCheckpointSolverSharedAcrossThreads(@TempDir Path directory) throws Exception {
+        List<GoodsItem> items = new ArrayList<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 12; i++) {
+            items.add(new GoodsItem("item" + i, 1 + random.nextInt(20), random.nextInt(50), 1 + random.nextInt(3)));
+        }
+        List<Store> stores = List.of(new Store("Store1", items.stream().map(GoodsItem::getName).collect(Collectors.toList())));
+        CheckpointingKnapsackSolver solver = new CheckpointingKnapsackSolver(directory, 1, 0);
+        KnapsackSolver reference = new KnapsackSolver();
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Map<List<GoodsItem>, Set<String>>>> results = new ArrayList<>();
+            for (int task = 0; task < 16; task++) {
+                int maxVolume = 200 + 50 * (task % 4);  // Every problem is solved by four tasks at once
+                results.add(pool.submit(() -> solver.solveKnapsack(items, maxVolume, 8, stores)));
+            }
+            for (int task = 0; task < results.size(); task++) {
+                assertEquals(reference.solveKnapsack(items, 200 + 50 * (task % 4), 8, stores), results.get(task).get(),
+                             "Expected every concurrent solve to match the plain solver.");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count(), "Expected every checkpoint to be deleted.");
+        }
+    }
+
+    /**
+     * Test case to ensure the scalar and vector solvers agree on a table spanning several volume tiles.
+     */
+    @Test
+    public void testVectorSolverMatchesScalarSolverAcrossVolumeTiles() {
+        int block = DpTransition.VOLUME_BLOCK;
+        int maxVolume = 2 * block + 37;
+        int maxItems = 5;
+        List<GoodsItem> items = List.of(
+            new GoodsItem("item1", block - 1, 11, 2),
+            new GoodsItem("item2", 3, 2, 4),
+            new GoodsItem("item3", block, 13, 1),
+            new GoodsItem("item4", block + 1, 15, 2),
+            new GoodsItem("item5", 2 * block - 5, 30, 1),
+            new GoodsItem("item6", 0, 1, 3)
+        );
+        List<Store> stores = List.of(new Store("Store1", List.of("item1", "item2", "item3", "item4", "item5", "item6")));
+
+        int[][] scalar = new KnapsackSolver().fillTable(items, maxVolume, maxItems);
+        int[][] vector = new VectorKnapsackSolver().fillTable(items, maxVolume, maxItems);
+
+        for (int layer = 0; layer < scalar.length; layer++) {
+            assertArrayEquals(scalar[layer], vector[layer], "Expected identical layer " + layer + ".");
+        }
+        assertEquals(new KnapsackSolver().solveKnapsack(items, maxVolume, maxItems, stores),
+                     new VectorKnapsackSolver().solveKnapsack(items, maxVolume, maxItems, stores), "Expected identical packing.");
+    }
+
+    /**
+     * Test case to ensure one table answers value and packing queries for every smaller capacity like a fresh solve.
+     */
+    @Test
+    public void testTableMatchesSolvesAtEveryCapacity() {
+        List<GoodsItem> items = List.of(new GoodsItem("item1", 3, 10, 2), new GoodsItem("item2", 2, 5, 3),
+                                        new GoodsItem("item3", 4, 20, 1), new GoodsItem("item4", 1, 2, 4));
+        List<Store> stores = List.of(new Store("Store1", List.of("item1", "item3")), new Store("Store2", List.of("item2", "item4")));
+        KnapsackSolver solver = new KnapsackSolver();
+        KnapsackTable table = solver.table(items, 12, 5, stores);
+
+        for (int volume = 0; volume <= 12; volume++) {
+            for (int count = 0; count <= 5; count++) {
+                assertEquals(solver.optimalValue(items, volume, count, stores), table.value(volume, count),
+                             "Expected the table value to match a solve at (" + volume + ", " + count + ").");
+                assertEquals(solver.solveKnapsack(items, volume, count, stores), table.packing(volume, count),
+                             "Expected the reconstructed packing to match a solve at (" + volume + ", " + count + ").");
+            }
+        }
+        assertSame(table.packing(), table.packing(), "Expected the full packing to be reconstructed once.");
+        assertEquals(solver.solveKnapsack(items, 12, 5, stores), table.packing(), "Expected the full packing to match solveKnapsack.");
+        assertEquals(table.value(12, 5), new MeetInTheMiddleSolver().table(items, 12, 5, stores).value(12, 5),
+                     "Expected the meet-in-the-middle solver to answer table queries through its fallback.");
+        assertThrows(IllegalArgumentException.class, () -> table.value(13, 5), "Expected a volume above the table to be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> table.packing(12, -1), "Expected a negative item limit to be rejected.");
+    }
+
+    /**
+     * Test case to ensure a burst of updates during a solve is coalesced into a single follow-up solve.
+     */
+    @Test
+    public void testStreamingPlannerCoalescesBurstDuringSolve() throws Exception {
+        CountDownLatch firstSolveStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstSolve = new CountDownLatch(1);
+        KnapsackSolver blocking = new KnapsackSolver() {
+            @Override
+            public Map<List<GoodsItem>, Set<String>> solveKnapsack(List<GoodsItem> items, int maxVolume, int maxItems, List<Store> stores) {
+                if (firstSolveStarted.getCount() > 0) {
+                    firstSolveStarted.countDown();
+                    try {
+                        releaseFirstSolve.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.solveKnapsack(items, maxVolume, maxItems, stores);
+            }
+        };
+        StreamingPlanner planner = new StreamingPlanner(blocking, 10, 5, 1, TimeUnit.HOURS.toMillis(1), 16);
+        PlanCollector plans = PlanCollector.subscribe(planner);
+
+        try (SubmissionPublisher<OrderUpdate> feed = new SubmissionPublisher<>()) {
+            feed.subscribe(planner);
+            feed.submit(OrderUpdate.store(new Store("Store1", List.of("item1", "item2"))));
+            assertTrue(firstSolveStarted.await(10, TimeUnit.SECONDS), "Expected the first update to start a solve.");
+
+            for (int i = 1; i <= 100; i++) {
+                feed.submit(OrderUpdate.item(new GoodsItem("item" + (i % 2 + 1), i % 7 + 1, i, 3)));
+            }
+            while (planner.getUpdates() < 101) {
+                Thread.sleep(1);
+            }
+            releaseFirstSolve.countDown();
+        }
+
+        List<PackingPlan> received = plans.allPlans().get(10, TimeUnit.SECONDS);
+        assertEquals(2, received.size(), "Expected the burst to cost exactly one more solve.");
+        assertEquals(2, planner.getSolves(), "Expected two solves.");
+        assertEquals(1, received.get(0).getUpdates(), "Expected the first plan to cover the first update.");
+        assertEquals(100, received.get(1).getUpdates(), "Expected the second plan to coalesce the whole burst.");
+        assertEquals(2, received.get(1).getVersion(), "Expected plan versions to increase.");
+
+        List<GoodsItem> finalItems = List.of(new GoodsItem("item2", 99 % 7 + 1, 99, 3), new GoodsItem("item1", 100 % 7 + 1, 100, 3));
+        List<Store> finalStores = List.of(new Store("Store1", List.of("item1", "item2")));
+        assertEquals(new KnapsackSolver().solveKnapsack(finalItems, 10, 5, finalStores).keySet().iterator().next().stream()
+                         .mapToInt(GoodsItem::getValue).sum(),
+                     received.get(1).getPackedItems().stream().mapToInt(GoodsItem::getValue).sum(),
+                     "Expected the last plan to match a direct solve of the final orders.");
+    }
+
+    /**
+     * Test case to ensure pending updates are solved once the time window expires and removals are applied.
+     */
+    @Test
+    public void testStreamingPlannerFlushesOnTimeWindow() throws Exception {
+        StreamingPlanner planner = new StreamingPlanner(new KnapsackSolver(), 10, 5, 1000, 20, 16);
+        PlanCollector plans = PlanCollector.subscribe(planner);
+
+        try (SubmissionPublisher<OrderUpdate> feed = new SubmissionPublisher<>()) {
+            feed.subscribe(planner);
+            feed.submit(OrderUpdate.item(new GoodsItem("item1", 3, 10, 2)));
+            feed.submit(OrderUpdate.item(new GoodsItem("item2", 4, 40, 2)));
+            feed.submit(OrderUpdate.store(new Store("Store1", List.of("item1"))));
+            feed.submit(OrderUpdate.store(new Store("Store2", List.of("item2"))));
+            feed.submit(OrderUpdate.removeStore("Store2"));
+
+            PackingPlan plan = plans.firstPlan().get(10, TimeUnit.SECONDS);
+            assertTrue(plan.getUpdates() >= 1, "Expected the time window to solve without a full batch.");
+            assertTrue(plan.getLatencyNanos() >= plan.getSolveNanos(), "Expected latency to include the solve.");
+            while (planner.getUpdates() < 5 || plans.received().stream().mapToInt(PackingPlan::getUpdates).sum() < 5) {
+                Thread.sleep(1);
+            }
+            List<PackingPlan> received = plans.received();
+            PackingPlan last = received.get(received.size() - 1);
+            assertEquals(Set.of("Store1"), last.getStoresToVisit(), "Expected the removed store not to be visited.");
+            assertTrue(last.getPackedItems().stream().allMatch(item -> item.getName().equals("item1")), "Expected only item1 to be packed.");
+        } finally {
+            planner.close();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new StreamingPlanner(new KnapsackSolver(), 10, 5, 0, 20, 16),
+                     "Expected a positive batch size.");
+    }
+
+    private static void writeInstance(Path directory, String prefix, String goods) throws IOException {
+        Files.writeString(directory.resolve(prefix + "_goods.json"), goods);
+        Files.writeString(directory.resolve(prefix + "_stores.json"), "[{\"name\": \"Store1\", \"requestedItems\": [\"item1\"]}]");
+        Files.writeString(directory.resolve(prefix + "_maxvolume.json"), "{\"maxVolume\": 10}");
+    }
 }
@@ -0,0 +1,69 @@
+package com.truckpacker;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @brief Test subscriber that requests every plan a planner publishes and records them in order.
+ */
+public class PlanCollector implements Flow.Subscriber<PackingPlan> {
+    private final List<PackingPlan> received = Collections.synchronizedList(new ArrayList<>());
+    private final CompletableFuture<PackingPlan> firstPlan = new CompletableFuture<>();
+    private final CompletableFuture<List<PackingPlan>> allPlans = new CompletableFuture<>();
+
+    /**
+     * @brief Subscribes a new collector to a planner.
+     * @param planner Planner whose plans are collected.
+     * @return The subscribed collector.
+     */
+    public static PlanCollector subscribe(StreamingPlanner planner) {
+        PlanCollector collector = new PlanCollector();
+        planner.subscribe(collector);
+        return collector;
+    }
+
+    /**
+     * @return Future completed with the first plan, or exceptionally if the stream fails first.
+     */
+    public CompletableFuture<PackingPlan> firstPlan() {
+        return firstPlan;
+    }
+
+    /**
+     * @return Future completed with every plan once the stream completes, or exceptionally if it fails.
+     */
+    public CompletableFuture<List<PackingPlan>> allPlans() {
+        return allPlans;
+    }
+
+    /**
+     * @return Plans received so far, in publication order.
+     */
+    public List<PackingPlan> received() {
+        synchronized (received) {
+            return new ArrayList<>(received);
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(PackingPlan plan) {
+        received.add(plan);
+        firstPlan.complete(plan);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        firstPlan.completeExceptionally(throwable);
+        allPlans.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        allPlans.complete(received());
+    }
+}
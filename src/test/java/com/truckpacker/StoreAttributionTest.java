@@ -0,0 +1,46 @@
+package com.truckpacker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @brief Unit tests for the attribution kernel.
+ */
+public class StoreAttributionTest {
+
+    private static final List<Store> STORES = List.of(new Store("Store1", List.of("item1", "item2")),
+                                                      new Store("Store2", List.of("item2", "item3")),
+                                                      new Store("Store3", List.of("item4")));
+
+    /**
+     * Test case to ensure only requested items are kept, in their original order.
+     */
+    @Test
+    public void testRequestedItemsKeepsOrder() {
+        GoodsItem item1 = new GoodsItem("item1", 1, 1, 1);
+        GoodsItem item3 = new GoodsItem("item3", 1, 1, 1);
+        GoodsItem item5 = new GoodsItem("item5", 1, 1, 1);
+
+        assertEquals(List.of(item3, item1), StoreAttribution.requestedItems(List.of(item3, item5, item1), STORES),
+                     "Expected unrequested items dropped and order kept.");
+        assertEquals(List.of(), StoreAttribution.requestedItems(List.of(item1), List.of()), "Expected nothing requested without stores.");
+    }
+
+    /**
+     * Test case to ensure every store requesting a packed item is visited and no other.
+     */
+    @Test
+    public void testStoresToVisit() {
+        GoodsItem item2 = new GoodsItem("item2", 1, 1, 1);
+        GoodsItem item4 = new GoodsItem("item4", 1, 1, 1);
+
+        assertEquals(Set.of("Store1", "Store2"), StoreAttribution.storesToVisit(List.of(item2, item2), STORES),
+                     "Expected both stores requesting item2.");
+        assertEquals(Set.of("Store1", "Store2", "Store3"), StoreAttribution.storesToVisit(List.of(item2, item4), STORES),
+                     "Expected all stores.");
+        assertEquals(Set.of(), StoreAttribution.storesToVisit(List.of(), STORES), "Expected no stores for an empty packing.");
+    }
+}
@@ -0,0 +1,31 @@
+package com.truckpacker;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * @brief DP row kernel built on jdk.incubator.vector, compiled only with the vector-api Maven profile.
+ * @details Uses the widest species the CPU supports (8 lanes on AVX2, 16 on AVX-512) and finishes the
+ *          tail of each row with scalar code.
+ */
+class VectorRowKernel implements RowKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void maxShifted(int[] source, int sourceOffset, int[] target, int targetOffset, int length, int addend) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+        for (; i < upperBound; i += SPECIES.length()) {
+            IntVector candidate = IntVector.fromArray(SPECIES, source, sourceOffset + i).add(addend);
+            IntVector existing = IntVector.fromArray(SPECIES, target, targetOffset + i);
+            existing.max(candidate).intoArray(target, targetOffset + i);
+        }
+        for (; i < length; i++) {
+            int newValue = source[sourceOffset + i] + addend;
+            if (newValue > target[targetOffset + i]) {
+                target[targetOffset + i] = newValue;
+            }
+        }
+    }
+}